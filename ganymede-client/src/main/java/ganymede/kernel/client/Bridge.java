@@ -0,0 +1,392 @@
+package ganymede.kernel.client;
+/*-
+ * ##########################################################################
+ * Ganymede
+ * %%
+ * Copyright (C) 2024 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+import lombok.ToString;
+import lombok.extern.log4j.Log4j2;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link ganymede.kernel.Kernel} binary {@link Bridge} protocol.  A
+ * persistent loopback connection from the {@link jdk.jshell.JShell} remote
+ * VM to the {@link ganymede.kernel.Kernel} carrying the same calls as the
+ * REST API.  Each frame is a 4-byte payload length, a 1-byte {@link Op},
+ * and the (JSON) payload.  JSON payloads containing {@link BinaryNode}
+ * values are {@link #pack(ObjectWriter,JsonNode) packed} with the binary
+ * values appended as raw sections instead of base64-encoded.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+public abstract class Bridge {
+
+    /**
+     * The name of the {@link System} property containing the
+     * {@link ganymede.kernel.Kernel}'s {@link Bridge} port.
+     */
+    public static final String PORT_PROPERTY = "kernel.bridge.port";
+
+    /**
+     * The name of the {@link System} property containing the
+     * {@link ganymede.kernel.Kernel}'s {@link Bridge} handshake token.
+     */
+    public static final String TOKEN_PROPERTY = "kernel.bridge.token";
+
+    /**
+     * The maximum {@link Frame} payload length.
+     */
+    public static final int MAX_PAYLOAD = 64 * 1024 * 1024;
+
+    private static final Op[] OPS = Op.values();
+
+    /*
+     * Packed payload marker (a JSON document never starts with a NUL).
+     */
+    private static final byte PACKED = 0;
+
+    private Bridge() { }
+
+    /**
+     * {@link Bridge} operations.  Other than {@link #hello} and
+     * {@link #error}, the names correspond to
+     * {@link ganymede.kernel.client.api.DefaultApi} methods.
+     */
+    public enum Op {
+        hello, error,
+        kernelId, getExecuteRequest, display, print, classpath, imports, variables
+    };
+
+    /**
+     * {@link Bridge} {@link Frame Frame}.
+     *
+     * {@bean.info}
+     */
+    @Data
+    public static class Frame {
+        private final Op op;
+        private final byte[] payload;
+
+        /**
+         * Method to get the payload as a {@link String}.
+         *
+         * @return      The payload decoded as UTF-8.
+         */
+        public String getPayloadAsString() { return new String(payload, UTF_8); }
+    }
+
+    /**
+     * Method to write a {@link Frame}.
+     *
+     * @param   out             The {@link DataOutputStream}.
+     * @param   op              The {@link Op}.
+     * @param   payload         The payload.
+     *
+     * @throws  IOException     If the {@link Frame} cannot be written.
+     */
+    public static void write(DataOutputStream out, Op op, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.writeByte(op.ordinal());
+        out.write(payload);
+        out.flush();
+    }
+
+    /**
+     * Method to read a {@link Frame} whose payload does not exceed
+     * {@link #MAX_PAYLOAD}.
+     *
+     * @param   in              The {@link DataInputStream}.
+     *
+     * @return  The {@link Frame}.
+     *
+     * @throws  IOException     If the {@link Frame} cannot be read.
+     */
+    public static Frame read(DataInputStream in) throws IOException {
+        return read(in, MAX_PAYLOAD);
+    }
+
+    /**
+     * Method to read a {@link Frame}.  The length is validated before the
+     * payload is allocated.
+     *
+     * @param   in              The {@link DataInputStream}.
+     * @param   max             The maximum payload length.
+     *
+     * @return  The {@link Frame}.
+     *
+     * @throws  IOException     If the {@link Frame} cannot be read or is
+     *                          invalid.
+     */
+    public static Frame read(DataInputStream in, int max) throws IOException {
+        var length = in.readInt();
+        var ordinal = in.readUnsignedByte();
+
+        if (length < 0 || length > max || ordinal >= OPS.length) {
+            throw new IOException("Invalid frame");
+        }
+
+        var payload = new byte[length];
+
+        in.readFully(payload);
+
+        return new Frame(OPS[ordinal], payload);
+    }
+
+    /**
+     * Method to serialize a {@link JsonNode} payload.  If the
+     * {@link JsonNode} contains {@link BinaryNode} values, the payload is
+     * a marker byte, the length-prefixed JSON (with each
+     * {@link BinaryNode} replaced by {@code null}), the section count, and
+     * for each section its length-prefixed {@link JsonPointer} and bytes.
+     * Otherwise, the payload is the JSON.
+     *
+     * @param   writer          The {@link ObjectWriter}.
+     * @param   node            The {@link JsonNode}.
+     *
+     * @return  The payload.
+     *
+     * @throws  IOException     If the {@link JsonNode} cannot be
+     *                          serialized.
+     */
+    public static byte[] pack(ObjectWriter writer, JsonNode node) throws IOException {
+        var sections = new LinkedHashMap<String,byte[]>();
+
+        collect(sections, "", node);
+
+        if (sections.isEmpty()) {
+            return writer.writeValueAsBytes(node);
+        }
+
+        JsonNode copy = node.deepCopy();
+
+        for (var pointer : sections.keySet()) {
+            set(copy, JsonPointer.compile(pointer), NullNode.getInstance());
+        }
+
+        var json = writer.writeValueAsBytes(copy);
+        var length = 1 + 4 + json.length + 4;
+
+        for (var entry : sections.entrySet()) {
+            length += 4 + entry.getKey().getBytes(UTF_8).length + 4 + entry.getValue().length;
+        }
+
+        var buffer = ByteBuffer.allocate(length);
+
+        buffer.put(PACKED).putInt(json.length).put(json).putInt(sections.size());
+
+        for (var entry : sections.entrySet()) {
+            var pointer = entry.getKey().getBytes(UTF_8);
+            var bytes = entry.getValue();
+
+            buffer.putInt(pointer.length).put(pointer).putInt(bytes.length).put(bytes);
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Method to deserialize a {@link JsonNode} payload.  See
+     * {@link #pack(ObjectWriter,JsonNode)}.
+     *
+     * @param   reader          The {@link ObjectReader}.
+     * @param   payload         The payload.
+     *
+     * @return  The {@link JsonNode}.
+     *
+     * @throws  IOException     If the payload cannot be deserialized.
+     */
+    public static JsonNode unpack(ObjectReader reader, byte[] payload) throws IOException {
+        if (payload.length == 0 || payload[0] != PACKED) {
+            return reader.readTree(payload);
+        }
+
+        try {
+            var buffer = ByteBuffer.wrap(payload, 1, payload.length - 1);
+            var length = buffer.getInt();
+            var node = reader.readTree(payload, buffer.position(), length);
+
+            buffer.position(buffer.position() + length);
+
+            for (int i = 0, n = buffer.getInt(); i < n; i += 1) {
+                var pointer = new byte[buffer.getInt()];
+
+                buffer.get(pointer);
+
+                var bytes = new byte[buffer.getInt()];
+
+                buffer.get(bytes);
+
+                set(node, JsonPointer.compile(new String(pointer, UTF_8)), BinaryNode.valueOf(bytes));
+            }
+
+            return node;
+        } catch (RuntimeException exception) {
+            throw new IOException("Invalid payload", exception);
+        }
+    }
+
+    private static void collect(Map<String,byte[]> sections, String pointer, JsonNode node) {
+        if (node.isBinary()) {
+            sections.put(pointer, ((BinaryNode) node).binaryValue());
+        } else if (node.isObject()) {
+            var iterator = node.fields();
+
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                var key = entry.getKey().replace("~", "~0").replace("/", "~1");
+
+                collect(sections, pointer + "/" + key, entry.getValue());
+            }
+        } else if (node.isArray()) {
+            for (int i = 0, n = node.size(); i < n; i += 1) {
+                collect(sections, pointer + "/" + i, node.get(i));
+            }
+        }
+    }
+
+    private static void set(JsonNode root, JsonPointer pointer, JsonNode value) {
+        var parent = root.at(pointer.head());
+        var last = pointer.last();
+
+        if (parent instanceof ObjectNode) {
+            ((ObjectNode) parent).set(last.getMatchingProperty(), value);
+        } else if (parent instanceof ArrayNode) {
+            ((ArrayNode) parent).set(last.getMatchingIndex(), value);
+        }
+    }
+
+    /**
+     * {@link Bridge} {@link Client Client}.  Connects on first call and
+     * reconnects after any I/O failure.
+     */
+    @ToString(onlyExplicitlyIncluded = true) @Log4j2
+    public static class Client implements AutoCloseable {
+        @ToString.Include private final int port;
+        private final String token;
+        private Socket socket = null;
+        private DataInputStream in = null;
+        private DataOutputStream out = null;
+
+        /**
+         * Sole constructor.
+         *
+         * @param   port        The {@link Bridge} port.
+         * @param   token       The handshake token.
+         */
+        public Client(int port, String token) {
+            this.port = port;
+            this.token = (token != null) ? token : "";
+        }
+
+        /**
+         * Method to make a {@link Bridge} call.
+         *
+         * @param   op          The {@link Op}.
+         * @param   payload     The request payload.
+         *
+         * @return  The reply payload.
+         *
+         * @throws  ConnectException
+         *                      If the connection or handshake fails
+         *                      (nothing was sent).
+         * @throws  IOException If the call cannot be completed (the
+         *                      connection is closed).
+         * @throws  IllegalStateException
+         *                      If the {@link ganymede.kernel.Kernel}
+         *                      replies with an {@link Op#error}.
+         */
+        public synchronized byte[] call(Op op, byte[] payload) throws IOException {
+            Frame frame = null;
+
+            try {
+                if (socket == null) {
+                    connect();
+                }
+
+                write(out, op, payload);
+
+                frame = read(in);
+            } catch (IOException exception) {
+                close();
+
+                throw exception;
+            }
+
+            if (frame.getOp() == Op.error) {
+                throw new IllegalStateException(frame.getPayloadAsString());
+            }
+
+            return frame.getPayload();
+        }
+
+        private void connect() throws ConnectException {
+            try {
+                socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                socket.setTcpNoDelay(true);
+
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+                write(out, Op.hello, token.getBytes(UTF_8));
+
+                if (read(in).getOp() != Op.hello) {
+                    throw new IOException("Handshake rejected");
+                }
+            } catch (IOException exception) {
+                var connect = new ConnectException("Port " + port + ": " + exception.getMessage());
+
+                connect.initCause(exception);
+
+                throw connect;
+            }
+
+            log.debug("Connected to port {}", port);
+        }
+
+        @Override
+        public synchronized void close() {
+            try (var socket = this.socket) {
+                this.socket = null;
+                this.in = null;
+                this.out = null;
+            } catch (IOException exception) {
+                log.debug("{}", exception);
+            }
+        }
+    }
+}
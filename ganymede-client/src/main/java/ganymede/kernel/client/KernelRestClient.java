@@ -18,16 +18,21 @@ package ganymede.kernel.client;
  * limitations under the License.
  * ##########################################################################
  */
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import ganymede.kernel.client.api.DefaultApi;
+import java.net.ConnectException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 
 /**
- * Ganymede {@link ganymede.kernel.Kernel} REST client.
+ * Ganymede {@link ganymede.kernel.Kernel} REST client.  Calls are made
+ * over the {@link Bridge} if {@value Bridge#PORT_PROPERTY} is specified
+ * with the REST API as the fallback.
  *
  * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
  */
@@ -40,23 +45,35 @@ public class KernelRestClient extends ApiClient {
      */
     public static final String PORT_PROPERTY = "kernel.port";
 
+    private final Bridge.Client bridge;
+
     {
         setPort(Integer.decode(System.getProperty(PORT_PROPERTY)));
         setRequestInterceptor(t -> t.header("Accept", "application/json"));
+
+        var port = System.getProperty(Bridge.PORT_PROPERTY);
+
+        if (port != null) {
+            bridge = new Bridge.Client(Integer.decode(port), System.getProperty(Bridge.TOKEN_PROPERTY));
+        } else {
+            bridge = null;
+        }
     }
 
     /**
      * See {@link DefaultApi#kernelId()}.
      */
     public UUID kernelId() throws Exception {
-        return new DefaultApi(this).kernelId();
+        return call(Bridge.Op.kernelId, null, new TypeReference<UUID>() { },
+                    () -> new DefaultApi(this).kernelId());
     }
 
     /**
      * See {@link DefaultApi#getExecuteRequest()}.
      */
     public JsonNode getExecuteRequest() throws Exception {
-        return new DefaultApi(this).getExecuteRequest();
+        return call(Bridge.Op.getExecuteRequest, null, new TypeReference<JsonNode>() { },
+                    () -> new DefaultApi(this).getExecuteRequest());
     }
 
     /**
@@ -65,7 +82,8 @@ public class KernelRestClient extends ApiClient {
      * @param   bundle          The MIME bundle {@link JsonNode}.
      */
     public void display(JsonNode bundle) throws Exception {
-        new DefaultApi(this).display(bundle);
+        call(Bridge.Op.display, bundle, null,
+             () -> { new DefaultApi(this).display(bundle); return null; });
     }
 
     /**
@@ -74,27 +92,60 @@ public class KernelRestClient extends ApiClient {
      * @param   bundle          The MIME bundle {@link JsonNode}.
      */
     public void print(JsonNode bundle) throws Exception {
-        new DefaultApi(this).print(bundle);
+        call(Bridge.Op.print, bundle, null,
+             () -> { new DefaultApi(this).print(bundle); return null; });
     }
 
     /**
      * See {@link DefaultApi#classpath()}.
      */
     public List<String> classpath() throws Exception {
-        return new DefaultApi(this).classpath();
+        return call(Bridge.Op.classpath, null, new TypeReference<List<String>>() { },
+                    () -> new DefaultApi(this).classpath());
     }
 
     /**
      * See {@link DefaultApi#imports()}.
      */
     public List<String> imports() throws Exception {
-        return new DefaultApi(this).imports();
+        return call(Bridge.Op.imports, null, new TypeReference<List<String>>() { },
+                    () -> new DefaultApi(this).imports());
     }
 
     /**
      * See {@link DefaultApi#variables()}.
      */
     public Map<String,String> variables() throws Exception {
-        return new DefaultApi(this).variables();
+        return call(Bridge.Op.variables, null, new TypeReference<Map<String,String>>() { },
+                    () -> new DefaultApi(this).variables());
+    }
+
+    /*
+     * Falls back to REST only if the Bridge connection cannot be
+     * established: once a request frame may have been sent the kernel may
+     * have acted on it (e.g., published display output) so the failure is
+     * reported instead.
+     */
+    private <T> T call(Bridge.Op op, Object body, TypeReference<T> type, Callable<T> fallback) throws Exception {
+        if (bridge != null) {
+            var mapper = getObjectMapper();
+            var payload = new byte[] { };
+
+            if (body instanceof JsonNode) {
+                payload = Bridge.pack(mapper.writer(), (JsonNode) body);
+            } else if (body != null) {
+                payload = mapper.writeValueAsBytes(body);
+            }
+
+            try {
+                var bytes = bridge.call(op, payload);
+
+                return (type != null && bytes.length > 0) ? mapper.readValue(bytes, type) : null;
+            } catch (ConnectException exception) {
+                log.debug("{}: {}", op, exception.getMessage());
+            }
+        }
+
+        return fallback.call();
     }
 }
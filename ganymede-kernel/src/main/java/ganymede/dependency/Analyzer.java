@@ -24,35 +24,52 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
-import lombok.NoArgsConstructor;
+import lombok.Data;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
+import org.springframework.boot.system.ApplicationHome;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.util.stream.Collectors.toList;
 
 /**
- * Dependency {@link Analyzer}.
+ * Dependency {@link Analyzer}.  Successful analysis results are kept in a
+ * persistent index (in the Jupyter data directory) keyed by absolute path,
+ * length, and last-modified time so unchanged JARs are not re-read.
  *
  * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
  */
-@NoArgsConstructor @ToString @Log4j2
+@ToString(onlyExplicitlyIncluded = true) @Log4j2
 public class Analyzer {
     private static final String SHADED_DEPENDENCIES = "META-INF/shaded.dependencies";
+    private static final String JUPYTER_DATA_DIR = "JUPYTER_DATA_DIR";
+    private static final String INDEX = "artifacts.index";
+
+    private final File indexFile = getIndexFile();
+    private final ConcurrentHashMap<String,Entry> index = new ConcurrentHashMap<>();
+
+    /**
+     * Sole constructor.
+     */
+    public Analyzer() { load(); }
 
     @CompileTimeCheck
     private static final Pattern POM_PROPERTIES =
@@ -71,64 +88,101 @@ public class Analyzer {
         var set = new LinkedHashSet<Artifact>();
 
         if (! file.isDirectory()) {
-            try (var jar = new JarFile(file)) {
-                var manifest = jar.getManifest();
-                var entry = jar.getJarEntry(SHADED_DEPENDENCIES);
-
-                if (entry != null) {
-                    try (var in = jar.getInputStream(entry)) {
-                        parse(in)
-                            .map(t -> t.setFile(file))
-                            .forEach(set::add);
-                    }
-                } else {
-                    var attributes = (manifest != null) ? manifest.getMainAttributes() : null;
-                    var list =
-                        jar.stream()
-                        .map(JarEntry::getName)
-                        .map(POM_PROPERTIES::matcher)
-                        .filter(Matcher::matches)
-                        .collect(toList());
-
-                    for (var matcher : list) {
-                        try (var in = jar.getInputStream(jar.getJarEntry(matcher.group()))) {
-                            var properties = new Properties();
-
-                            properties.load(in);
-
-                            if (Objects.equals(matcher.group("g"), properties.get("groupId"))
-                                && Objects.equals(matcher.group("a"), properties.get("artifactId"))) {
-                                var artifact =
-                                    artifact(matcher.group("g"), matcher.group("a"),
-                                             properties.getProperty("version"), file);
-
-                                set.add(artifact);
-                            } else {
-                                log.warn("{} does not specify {}:{}",
-                                         jar.getName() + "!/" + matcher.group(),
-                                         matcher.group("g"), matcher.group("a"));
-                            }
-                        } catch (IOException exception) {
-                            log.warn("{}", jar.getName() + "!/" + matcher.group(), exception);
+            var path = file.getAbsolutePath();
+            var length = file.length();
+            var lastModified = file.lastModified();
+            var entry = index.get(path);
+
+            if (entry != null && entry.getLength() == length && entry.getLastModified() == lastModified) {
+                entry.getCoordinates().stream()
+                    .map(t -> artifact(t, file))
+                    .forEach(set::add);
+            } else if (analyze(file, set)) {
+                var coordinates =
+                    set.stream()
+                    .map(t -> String.join(":",
+                                          t.getGroupId(), t.getArtifactId(),
+                                          t.getExtension(), t.getClassifier(),
+                                          t.getVersion()))
+                    .collect(toList());
+
+                if (lastModified > 0) {
+                    entry = new Entry(path, length, lastModified, coordinates);
+                    index.put(path, entry);
+                    store(entry);
+                }
+            }
+        }
+
+        return set;
+    }
+
+    /*
+     * Returns false if the analysis failed (and the result should not be
+     * persisted).
+     */
+    private boolean analyze(File file, Set<Artifact> set) {
+        var complete = true;
+
+        try (var jar = new JarFile(file)) {
+            var manifest = jar.getManifest();
+            var entry = jar.getJarEntry(SHADED_DEPENDENCIES);
+
+            if (entry != null) {
+                try (var in = jar.getInputStream(entry)) {
+                    parse(in)
+                        .map(t -> t.setFile(file))
+                        .forEach(set::add);
+                }
+            } else {
+                var attributes = (manifest != null) ? manifest.getMainAttributes() : null;
+                var list =
+                    jar.stream()
+                    .map(JarEntry::getName)
+                    .map(POM_PROPERTIES::matcher)
+                    .filter(Matcher::matches)
+                    .collect(toList());
+
+                for (var matcher : list) {
+                    try (var in = jar.getInputStream(jar.getJarEntry(matcher.group()))) {
+                        var properties = new Properties();
+
+                        properties.load(in);
+
+                        if (Objects.equals(matcher.group("g"), properties.get("groupId"))
+                            && Objects.equals(matcher.group("a"), properties.get("artifactId"))) {
+                            var artifact =
+                                artifact(matcher.group("g"), matcher.group("a"),
+                                         properties.getProperty("version"), file);
+
+                            set.add(artifact);
+                        } else {
+                            log.warn("{} does not specify {}:{}",
+                                     jar.getName() + "!/" + matcher.group(),
+                                     matcher.group("g"), matcher.group("a"));
                         }
+                    } catch (IOException exception) {
+                        complete = false;
+                        log.warn("{}", jar.getName() + "!/" + matcher.group(), exception);
                     }
+                }
 
-                    if (set.isEmpty()) {
-                        if (attributes != null) {
-                            var artifact = getArtifactFrom(attributes, file);
+                if (set.isEmpty()) {
+                    if (attributes != null) {
+                        var artifact = getArtifactFrom(attributes, file);
 
-                            if (artifact != null) {
-                                set.add(artifact);
-                            }
+                        if (artifact != null) {
+                            set.add(artifact);
                         }
                     }
                 }
-            } catch (Exception exception) {
-                log.warn("{}", file, exception);
             }
+        } catch (Exception exception) {
+            complete = false;
+            log.warn("{}", file, exception);
         }
 
-        return set;
+        return complete;
     }
 
     /**
@@ -176,4 +230,93 @@ public class Analyzer {
     private DefaultArtifact artifact(List<String> coordinates, File file) {
         return artifact(coordinates.get(0), coordinates.get(1), coordinates.get(2), file);
     }
+
+    private DefaultArtifact artifact(String coordinates, File file) {
+        var t = coordinates.split(":", -1);
+
+        return new DefaultArtifact(t[0], t[1], t[3], t[2], t[4], Map.of(), file);
+    }
+
+    /*
+     * Persistent index: Each line is the tab-separated absolute path,
+     * length, last-modified time, and space-separated
+     * groupId:artifactId:extension:classifier:version coordinates of the
+     * analyzed file.  Entries are appended as files are analyzed; later
+     * lines supersede earlier ones.  The file is rewritten on load if it
+     * contains superseded lines.  The index is kept in
+     * ${JUPYTER_DATA_DIR}/ganymede (set in the kernelspec and writable by
+     * the user even when the kernel is installed --sys-prefix) falling back
+     * to the kernel installation directory.
+     */
+    private static File getIndexFile() {
+        File file = null;
+
+        try {
+            var data_dir = System.getenv(JUPYTER_DATA_DIR);
+
+            if (data_dir != null && (! data_dir.isBlank())) {
+                file = new File(new File(data_dir, "ganymede"), INDEX);
+            } else {
+                file = new File(new ApplicationHome(Analyzer.class).getDir(), INDEX);
+            }
+        } catch (Exception exception) {
+            log.debug("{}", exception);
+        }
+
+        return file;
+    }
+
+    private void load() {
+        if (indexFile != null && indexFile.isFile()) {
+            var lines = 0;
+
+            try {
+                for (var line : Files.readAllLines(indexFile.toPath(), UTF_8)) {
+                    var t = line.split("\t", -1);
+
+                    if (t.length == 4) {
+                        var coordinates =
+                            Stream.of(t[3].split(" "))
+                            .filter(u -> u.split(":", -1).length == 5)
+                            .collect(toList());
+
+                        index.put(t[0], new Entry(t[0], Long.parseLong(t[1]), Long.parseLong(t[2]), coordinates));
+                        lines += 1;
+                    }
+                }
+
+                if (lines > index.size()) {
+                    var list = index.values().stream().map(Entry::toLine).collect(toList());
+
+                    Files.write(indexFile.toPath(), list, UTF_8);
+                }
+            } catch (Exception exception) {
+                log.warn("{}", indexFile, exception);
+            }
+        }
+    }
+
+    private synchronized void store(Entry entry) {
+        if (indexFile != null) {
+            try {
+                Files.createDirectories(indexFile.toPath().getParent());
+                Files.write(indexFile.toPath(), List.of(entry.toLine()), UTF_8, CREATE, APPEND);
+            } catch (Exception exception) {
+                log.warn("{}", indexFile, exception);
+            }
+        }
+    }
+
+    @Data
+    private static class Entry {
+        private final String path;
+        private final long length;
+        private final long lastModified;
+        private final List<String> coordinates;
+
+        public String toLine() {
+            return String.join("\t", path, String.valueOf(length), String.valueOf(lastModified),
+                               String.join(" ", coordinates));
+        }
+    }
 }
@@ -23,16 +23,23 @@ import ganymede.util.PathPropertyMap;
 import java.io.File;
 import java.io.PrintStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
@@ -41,16 +48,19 @@ import lombok.extern.log4j.Log4j2;
 import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
 import org.eclipse.aether.AbstractRepositoryListener;
 import org.eclipse.aether.ConfigurationProperties;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.DefaultRepositoryCache;
 import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.repository.WorkspaceReader;
 import org.eclipse.aether.repository.WorkspaceRepository;
+import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyRequest;
 import org.eclipse.aether.resolution.DependencyResolutionException;
 import org.eclipse.aether.supplier.RepositorySystemSupplier;
@@ -81,12 +91,16 @@ public class Resolver extends Analyzer {
                "org.slf4j:slf4j-log4j12:jar", "org.slf4j:slf4j-reload4j:jar");
 
     private static final String DEPENDENCIES_FORMAT = "/META-INF/%s.dependencies";
+    private static final int THREADS = 8;
 
     private final RepositorySystem system;
     private final POM pom;
     private final Set<File> classpath = new LinkedHashSet<>();
+    private final AtomicLong generation = new AtomicLong(0);
     private final RepositoryImpl repository = new RepositoryImpl();
     private final PathPropertyMap pathMap = new PathPropertyMap();
+    private final DefaultRepositoryCache cache = new DefaultRepositoryCache();
+    private DefaultRepositorySystemSession session = null;
 
     {
         try {
@@ -116,6 +130,15 @@ public class Resolver extends Analyzer {
      */
     public Set<File> classpath() { return classpath; }
 
+    /**
+     * Method to get the current {@link #classpath()} generation.
+     * Incremented whenever {@link #addToClasspath(File...)} or
+     * {@link #addToClasspath(Artifact...)} adds an entry.
+     *
+     * @return  The classpath generation.
+     */
+    public long generation() { return generation.get(); }
+
     /**
      * Method to add a {@link File}(s) to the repository
      * ({@link WorkspaceReader}).
@@ -146,10 +169,14 @@ public class Resolver extends Analyzer {
         for (var file : files) {
             file = file.getAbsoluteFile();
 
-            var artifacts =
-                getShadedArtifactSet(file).stream()
-                .map(repository::resolve)
-                .collect(toSet());
+            var artifacts = repository.getArtifacts(file);
+
+            if (artifacts.isEmpty()) {
+                artifacts =
+                    getShadedArtifactSet(file).stream()
+                    .map(repository::resolve)
+                    .collect(toSet());
+            }
 
             if (! artifacts.isEmpty()) {
                 var array = artifacts.toArray(new Artifact[] { });
@@ -157,6 +184,7 @@ public class Resolver extends Analyzer {
                 list.addAll(addToClasspath(array));
             } else {
                 if (classpath.add(file)) {
+                    generation.incrementAndGet();
                     list.add(file);
                 }
             }
@@ -194,30 +222,26 @@ public class Resolver extends Analyzer {
             if (! ignore) {
                 if (SLF4J_BINDINGS.contains(id)) {
                     ignore |=
-                        repository.getArtifactsOn(classpath)
-                        .map(ArtifactIdUtils::toVersionlessId)
-                        .anyMatch(t -> SLF4J_BINDINGS.contains(t));
+                        repository.getArtifactsOn(classpath, SLF4J_BINDINGS)
+                        .findAny().isPresent();
                 }
             }
 
             if (! ignore) {
                 if (JCL_BRIDGES.contains(id)) {
                     ignore |=
-                        repository.getArtifactsOn(classpath)
-                        .map(ArtifactIdUtils::toVersionlessId)
-                        .anyMatch(t -> JCL_BRIDGES.contains(t));
+                        repository.getArtifactsOn(classpath, JCL_BRIDGES)
+                        .findAny().isPresent();
                 }
             }
 
             if (! ignore) {
                 if (! classpath.contains(artifact.getFile())) {
-                    var installed =
-                        repository.getArtifactsOn(classpath)
-                        .filter(t -> ArtifactIdUtils.equalsVersionlessId(artifact, t))
-                        .findFirst().orElse(null);
+                    var installed = repository.getInstalled(classpath, artifact).orElse(null);
 
                     if (installed == null) {
                         if (classpath.add(artifact.getFile())) {
+                            generation.incrementAndGet();
                             list.add(artifact.getFile());
                         }
                     } else {
@@ -248,37 +272,83 @@ public class Resolver extends Analyzer {
     public List<File> addKnownDependenciesToClasspath(File parent) {
         var list = new LinkedList<File>();
 
+        for (var artifacts : getKnownDependencies(parent)) {
+            list.addAll(addToClasspath(artifacts));
+        }
+
+        return list;
+    }
+
+    /**
+     * Method to find the known dependencies within a parent directory.
+     * See {@link #addKnownDependenciesToClasspath(File)}.  The JARs are
+     * scanned in parallel (on a bounded {@link ForkJoinPool}) without
+     * modifying {@link.this} {@link Resolver}; the result is ordered by
+     * JAR name so adding it to the {@link #classpath()} is deterministic.
+     *
+     * @param   parent          The parent {@link File} to analyze.
+     *
+     * @return  The {@link List} of known {@link Artifact}s (per JAR).
+     */
+    public List<Artifact[]> getKnownDependencies(File parent) {
+        var list = new ArrayList<Artifact[]>();
+        var entries = new ArrayList<Path>();
+
         try (var stream = Files.newDirectoryStream(parent.toPath(), "*.jar")) {
-            for (var entry : stream) {
-                var resource = String.format(DEPENDENCIES_FORMAT, entry.getFileName());
-
-                try (var in = getClass().getResourceAsStream(resource)) {
-                    if (in != null) {
-                        var artifacts =
-                            parse(in)
-                            .map(t -> t.setFile(new File(parent,
-                                                         t.getArtifactId()
-                                                         + "-" + t.getVersion()
-                                                         + "." + t.getExtension())
-                                                .getAbsoluteFile()))
-                            .filter(t -> t.getFile().exists())
-                            .toArray(Artifact[]::new);
-
-                        list.addAll(addToClasspath(artifacts));
-                    }
-                } catch (Exception exception) {
-                    log.warn("Could not read {}", resource, exception);
-                }
-            }
+            stream.forEach(entries::add);
         } catch (Exception exception) {
             log.warn("{}: {}", parent, exception);
         }
 
+        if (! entries.isEmpty()) {
+            Collections.sort(entries);
+
+            var pool = new ForkJoinPool(Math.min(THREADS, entries.size()));
+
+            try {
+                pool.submit(() -> entries.parallelStream()
+                                  .map(t -> getKnownDependencies(parent, t))
+                                  .filter(Objects::nonNull)
+                                  .forEachOrdered(list::add))
+                    .get();
+            } catch (Exception exception) {
+                log.warn("{}: {}", parent, exception);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
         return list;
     }
 
+    private Artifact[] getKnownDependencies(File parent, Path entry) {
+        Artifact[] artifacts = null;
+        var resource = String.format(DEPENDENCIES_FORMAT, entry.getFileName());
+
+        try (var in = getClass().getResourceAsStream(resource)) {
+            if (in != null) {
+                artifacts =
+                    parse(in)
+                    .map(t -> t.setFile(new File(parent,
+                                                 t.getArtifactId()
+                                                 + "-" + t.getVersion()
+                                                 + "." + t.getExtension())
+                                        .getAbsoluteFile()))
+                    .filter(t -> t.getFile().exists())
+                    .toArray(Artifact[]::new);
+            }
+        } catch (Exception exception) {
+            log.warn("Could not read {}", resource, exception);
+        }
+
+        return artifacts;
+    }
+
     /**
      * Merge the argument {@link POM} and resolve any dependencies.
+     * Dependencies already satisfied on the {@link #classpath()} are
+     * skipped and the remainder are collected and resolved in a single
+     * dependency graph.
      *
      * @param   shell           The {@link Shell}.
      * @param   out             The {@code stdout} {@link PrintStream}.
@@ -297,101 +367,148 @@ public class Resolver extends Analyzer {
         var repositories = pom().getRepositories().stream().collect(toList());
         var scope = JavaScopes.RUNTIME;
         var filter = DependencyFilterUtils.classpathFilter(scope);
-        var iterator = pom().getDependencies().iterator();
-
-        while (iterator.hasNext()) {
-            var dependency = iterator.next();
+        var dependencies =
+            pom().getDependencies().stream()
+            .filter(t -> (! isSatisfied(t)))
+            .collect(toList());
 
+        if (! dependencies.isEmpty()) {
             try {
-                var request = new DependencyRequest(new CollectRequest(dependency, repositories), filter);
-
-                for (var result : system.resolveDependencies(session, request).getArtifactResults()) {
-                    if (result.isResolved()) {
-                        var artifact = repository.resolve(result.getArtifact());
-
-                        if (! classpath.contains(artifact.getFile())) {
-                            var installed =
-                                repository.getArtifactsOn(classpath)
-                                .filter(t -> ArtifactIdUtils.equalsVersionlessId(artifact, t))
-                                .findFirst().orElse(null);
-
-                            if (installed == null) {
-                                files.addAll(addToClasspath(artifact));
-                            } else {
-                                log.debug("Ignored resolved artifact {}", artifact);
-                                log.debug("    for {} @ {}",
-                                          () -> installed.getVersion(),
-                                          () -> pathMap.shorten(installed.getFile()));
-                            }
-                        }
-                    }
+                var request = new DependencyRequest(new CollectRequest(dependencies, null, repositories), filter);
 
-                    if (result.isMissing()) {
-                        result.getExceptions().stream()
-                            .forEach(t -> err.println(t.getMessage()));
+                files.addAll(addToClasspath(err, system.resolveDependencies(session, request).getArtifactResults()));
+            } catch (DependencyResolutionException exception) {
+                /*
+                 * Resolve individually to identify (and drop) the
+                 * dependencies that cannot be resolved.
+                 */
+                for (var dependency : dependencies) {
+                    try {
+                        var request = new DependencyRequest(new CollectRequest(dependency, repositories), filter);
+
+                        files.addAll(addToClasspath(err, system.resolveDependencies(session, request).getArtifactResults()));
+                        continue;
+                    } catch (DependencyResolutionException failure) {
+                        err.println(failure.getMessage());
+                    } catch (Exception failure) {
+                        failure.printStackTrace(err);
                     }
+
+                    pom().getDependencies().remove(dependency);
                 }
-                continue;
-            } catch (DependencyResolutionException exception) {
-                err.println(exception.getMessage());
             } catch (Exception exception) {
                 exception.printStackTrace(err);
             }
+        }
+
+        return files;
+    }
+
+    private boolean isSatisfied(Dependency dependency) {
+        return repository.getInstalled(classpath, dependency.getArtifact()).isPresent();
+    }
+
+    private List<File> addToClasspath(PrintStream err, List<ArtifactResult> results) {
+        var files = new ArrayList<File>();
+
+        for (var result : results) {
+            if (result.isResolved()) {
+                var artifact = repository.resolve(result.getArtifact());
+
+                if (! classpath.contains(artifact.getFile())) {
+                    var installed = repository.getInstalled(classpath, artifact).orElse(null);
+
+                    if (installed == null) {
+                        files.addAll(addToClasspath(artifact));
+                    } else {
+                        log.debug("Ignored resolved artifact {}", artifact);
+                        log.debug("    for {} @ {}",
+                                  () -> installed.getVersion(),
+                                  () -> pathMap.shorten(installed.getFile()));
+                    }
+                }
+            }
 
-            iterator.remove();
+            if (result.isMissing()) {
+                result.getExceptions().stream()
+                    .forEach(t -> err.println(t.getMessage()));
+            }
         }
 
         return files;
     }
 
     private RepositorySystemSession session(PrintStream out, PrintStream err) {
-        var session = MavenRepositorySystemUtils.newSession();
-        var properties = new LinkedHashMap<Object,Object>();
-
-        properties.put(ConfigurationProperties.USER_AGENT,
-                       String.format("Ganymede/(Java %s; %s)",
-                                     System.getProperty("java.version"),
-                                     System.getProperty("os.version")));
-        /*
-         * properties.putAll((Map<?,?>) project.getProperties());
-         */
-        /*
-         * ${settings.servers}
-         * AntRepoSys: processServerConfiguration(properties);
-         */
-        session.setConfigProperties(properties);
-        session.setOffline(Objects.requireNonNullElse(pom().getOffline(), false));
-        /*
-         * AntRepoSys: session.setUserProperties(project.getUserProperties());
-         */
-        /*
-         * ${settings.servers}, ${settings.mirrors}
-         * session.setProxySelector(getProxySelector());
-         * session.setMirrorSelector(getMirrorSelector());
-         * session.setAuthenticationSelector(getAuthSelector());
-         */
-        session.setCache(new DefaultRepositoryCache());
-
+        var offline = Objects.requireNonNullElse(pom().getOffline(), false);
         var path =
             Stream.of(pom().getLocalRepository(), System.getProperty("maven.repo.local"))
             .filter(Objects::nonNull)
             .map(Paths::get)
             .findFirst().orElse(Paths.get(System.getProperty("user.home"), ".m2", "repository"));
         var local = new LocalRepository(path.toFile());
-        var manager = system.newLocalRepositoryManager(session, local);
 
-        session.setLocalRepositoryManager(manager);
-        session.setWorkspaceReader(repository);
+        if (session == null
+            || session.isOffline() != offline
+            || (! Objects.equals(session.getLocalRepository().getBasedir(), local.getBasedir()))) {
+            session = MavenRepositorySystemUtils.newSession();
+
+            var properties = new LinkedHashMap<Object,Object>();
+
+            properties.put(ConfigurationProperties.USER_AGENT,
+                           String.format("Ganymede/(Java %s; %s)",
+                                         System.getProperty("java.version"),
+                                         System.getProperty("os.version")));
+            /*
+             * Collect the dependency graph breadth-first (prefetching
+             * descriptors in parallel) and download artifacts in parallel.
+             */
+            properties.put("aether.dependencyCollector.impl", "bf");
+            properties.put("aether.dependencyCollector.bf.threads", THREADS);
+            properties.put("aether.connector.basic.threads", THREADS);
+            /*
+             * properties.putAll((Map<?,?>) project.getProperties());
+             */
+            /*
+             * ${settings.servers}
+             * AntRepoSys: processServerConfiguration(properties);
+             */
+            session.setConfigProperties(properties);
+            session.setOffline(offline);
+            /*
+             * AntRepoSys: session.setUserProperties(project.getUserProperties());
+             */
+            /*
+             * ${settings.servers}, ${settings.mirrors}
+             * session.setProxySelector(getProxySelector());
+             * session.setMirrorSelector(getMirrorSelector());
+             * session.setAuthenticationSelector(getAuthSelector());
+             */
+            session.setCache(cache);
+
+            var manager = system.newLocalRepositoryManager(session, local);
+
+            session.setLocalRepositoryManager(manager);
+            session.setWorkspaceReader(repository);
+        }
+
         session.setRepositoryListener(new RepositoryListener(out, err));
         session.setTransferListener(new TransferListener(out, err));
 
         return session;
     }
 
+    /*
+     * Artifacts indexed by full id (the TreeMap key), versionless id, and
+     * file.  The indexes are maintained incrementally by
+     * resolve(Artifact), the only mutator.
+     */
     @NoArgsConstructor
     private class RepositoryImpl extends TreeMap<String,Artifact> implements WorkspaceReader {
         private static final long serialVersionUID = -1L;
 
+        private final Map<String,List<Artifact>> versionless = new HashMap<>();
+        private final Map<File,List<Artifact>> files = new HashMap<>();
+
         public Set<Artifact> resolve(Set<Artifact> set) {
             var resolved =
                 set.stream()
@@ -406,11 +523,34 @@ public class Resolver extends Analyzer {
                 throw new IllegalArgumentException();
             }
 
-            return computeIfAbsent(ArtifactIdUtils.toId(artifact), k -> artifact);
+            var id = ArtifactIdUtils.toId(artifact);
+            var value = get(id);
+
+            if (value == null) {
+                value = artifact;
+
+                put(id, value);
+                versionless.computeIfAbsent(ArtifactIdUtils.toVersionlessId(value), k -> new ArrayList<>())
+                    .add(value);
+                files.computeIfAbsent(value.getFile(), k -> new ArrayList<>())
+                    .add(value);
+            }
+
+            return value;
         }
 
-        public Stream<Artifact> getArtifactsOn(Set<File> classpath) {
-            return values().stream().filter(t -> classpath.contains(t.getFile()));
+        public Set<Artifact> getArtifacts(File file) {
+            return new LinkedHashSet<>(files.getOrDefault(file, List.of()));
+        }
+
+        public Stream<Artifact> getArtifactsOn(Set<File> classpath, Collection<String> ids) {
+            return ids.stream()
+                .flatMap(t -> versionless.getOrDefault(t, List.of()).stream())
+                .filter(t -> classpath.contains(t.getFile()));
+        }
+
+        public Optional<Artifact> getInstalled(Set<File> classpath, Artifact artifact) {
+            return getArtifactsOn(classpath, List.of(ArtifactIdUtils.toVersionlessId(artifact))).findFirst();
         }
 
         @Override
@@ -420,21 +560,15 @@ public class Resolver extends Analyzer {
 
         @Override
         public File findArtifact(Artifact artifact) {
-            var id = ArtifactIdUtils.toId(artifact);
-            var file =
-                values().stream()
-                .filter(t -> Objects.equals(id, ArtifactIdUtils.toId(t)))
-                .map(Artifact::getFile)
-                .findFirst().orElse(null);
+            var value = get(ArtifactIdUtils.toId(artifact));
 
-            return file;
+            return (value != null) ? value.getFile() : null;
         }
 
         @Override
         public List<String> findVersions(Artifact artifact) {
             var list =
-                values().stream()
-                .filter(t -> ArtifactIdUtils.equalsVersionlessId(artifact, t))
+                versionless.getOrDefault(ArtifactIdUtils.toVersionlessId(artifact), List.of()).stream()
                 .map(Artifact::getVersion)
                 .collect(toList());
 
@@ -0,0 +1,179 @@
+package ganymede.kernel;
+/*-
+ * ##########################################################################
+ * Ganymede
+ * %%
+ * Copyright (C) 2024 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import com.fasterxml.jackson.databind.JsonNode;
+import ganymede.kernel.client.Bridge;
+import ganymede.util.ObjectMappers;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link Kernel} {@link Bridge} server.  Accepts loopback connections from
+ * the {@link jdk.jshell.JShell} remote VM and dispatches each
+ * {@link Bridge.Op} to the {@link KernelApi} method of the same name.
+ *
+ * {@bean.info}
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@ToString(onlyExplicitlyIncluded = true) @Log4j2
+public class BridgeServer implements Runnable, AutoCloseable {
+    private static final byte[] NONE = new byte[] { };
+
+    /*
+     * The handshake token is a UUID string; anything larger is rejected
+     * before a connection is authenticated.
+     */
+    private static final int MAX_HELLO = 256;
+
+    private final KernelApi api;
+    private final ServerSocket server;
+    @Getter @ToString.Include
+    private final int port;
+    @Getter
+    private final String token = UUID.randomUUID().toString();
+
+    /**
+     * Sole constructor.
+     *
+     * @param   api             The {@link KernelApi} implementation.
+     *
+     * @throws  IOException     If the {@link ServerSocket} cannot be
+     *                          bound.
+     */
+    public BridgeServer(KernelApi api) throws IOException {
+        this.api = api;
+        this.server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        this.port = server.getLocalPort();
+    }
+
+    /**
+     * Method to start {@link.this} on a dedicated daemon {@link Thread}.
+     * Connections are served on their own daemon {@link Thread}s so they
+     * cannot occupy the {@link Kernel}'s pool.
+     */
+    public void start() { daemon(this, "bridge-" + port).start(); }
+
+    private Thread daemon(Runnable runnable, String name) {
+        var thread = new Thread(runnable, name);
+
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    @Override
+    public void run() {
+        log.info("Bridge listening on port {}", port);
+
+        while (! server.isClosed()) {
+            try {
+                var socket = server.accept();
+
+                daemon(() -> serve(socket), "bridge-" + socket.getPort()).start();
+            } catch (IOException exception) {
+                if (! server.isClosed()) {
+                    log.warn("{}", exception);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            var hello = Bridge.read(in, MAX_HELLO);
+
+            if (hello.getOp() == Bridge.Op.hello
+                && MessageDigest.isEqual(token.getBytes(UTF_8), hello.getPayload())) {
+                Bridge.write(out, Bridge.Op.hello, NONE);
+            } else {
+                throw new SecurityException("Invalid handshake");
+            }
+
+            for (;;) {
+                var frame = Bridge.read(in);
+
+                try {
+                    Bridge.write(out, frame.getOp(), dispatch(frame));
+                } catch (Throwable throwable) {
+                    if (throwable instanceof InvocationTargetException) {
+                        if (throwable.getCause() != null) {
+                            throwable = throwable.getCause();
+                        }
+                    }
+
+                    Bridge.write(out, Bridge.Op.error, String.valueOf(throwable).getBytes(UTF_8));
+                }
+            }
+        } catch (EOFException exception) {
+        } catch (Exception exception) {
+            log.warn("{}", exception);
+        }
+    }
+
+    private byte[] dispatch(Bridge.Frame frame) throws Exception {
+        var name = frame.getOp().name();
+        var payload = frame.getPayload();
+        ResponseEntity<?> response = null;
+
+        if (payload.length > 0) {
+            var method = KernelApi.class.getMethod(name, JsonNode.class);
+
+            response = (ResponseEntity<?>) method.invoke(api, Bridge.unpack(ObjectMappers.WIRE_READER, payload));
+        } else {
+            var method = KernelApi.class.getMethod(name);
+
+            response = (ResponseEntity<?>) method.invoke(api);
+        }
+
+        var body = (response != null) ? response.getBody() : null;
+
+        return (body != null) ? ObjectMappers.WIRE_WRITER.writeValueAsBytes(body) : NONE;
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException exception) {
+            log.debug("{}", exception);
+        }
+    }
+}
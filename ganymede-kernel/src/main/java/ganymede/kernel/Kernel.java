@@ -83,6 +83,39 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
     @Value("${hive-home:#{null}}")
     private String hive_home = null;
 
+    @Value("${zmq.io-threads:1}")
+    private int zmq_io_threads = 1;
+
+    @Value("${zmq.sndhwm:1000}")
+    private int zmq_sndhwm = 1000;
+
+    @Value("${zmq.rcvhwm:1000}")
+    private int zmq_rcvhwm = 1000;
+
+    @Value("${zmq.linger:-1}")
+    private int zmq_linger = -1;
+
+    @Value("${iopub.flush-window:10}")
+    private long iopub_flush_window = 10;
+
+    @Value("${iopub.publish-timeout:5000}")
+    private long iopub_publish_timeout = 5000;
+
+    @Value("${stream.enabled:true}")
+    private boolean stream_enabled = true;
+
+    @Value("${stream.interval:100}")
+    private long stream_interval = 100;
+
+    @Value("${stream.threshold:65536}")
+    private int stream_threshold = 64 * 1024;
+
+    @Value("${stream.limit:67108864}")
+    private long stream_limit = 64 * 1024 * 1024;
+
+    @Value("${shell.standby:false}")
+    private boolean shell_standby = false;
+
     @Value("${kernel.version}")
     private String kernel_version = null;
 
@@ -92,6 +125,7 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
     private final Shell shell = new Shell(this);
     private ApplicationContext context = null;
     private int port = -1;
+    private BridgeServer bridge = null;
     private ObjectNode kernel_info_reply_content = null;
 
     /**
@@ -101,6 +135,13 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
      */
     public int getPort() { return port; }
 
+    /**
+     * Method to get the {@link Kernel} {@link BridgeServer}.
+     *
+     * @return  The {@link BridgeServer} (may be {@code null}).
+     */
+    public BridgeServer getBridge() { return bridge; }
+
     @PostConstruct
     public void init() throws Exception {
         try (var in = kernel_info_reply.getInputStream()) {
@@ -118,6 +159,19 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
         kernel_info_reply_content.put("protocol_version", PROTOCOL_VERSION.toString());
         kernel_info_reply_content.withArray("help_links").add(jse_help_link);
 
+        setIoThreads(zmq_io_threads);
+        setSndHWM(zmq_sndhwm);
+        setRcvHWM(zmq_rcvhwm);
+        setLinger(zmq_linger);
+
+        getIopub().setFlushWindow(iopub_flush_window);
+        getIopub().setPublishTimeout(iopub_publish_timeout);
+
+        setStreaming(stream_enabled);
+        setStreamInterval(stream_interval);
+        setStreamThreshold(stream_threshold);
+        setStreamLimit(stream_limit);
+
         if (spark_home != null) {
             var parent = Paths.get(spark_home, "jars").toFile();
 
@@ -130,11 +184,24 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
             shell.addKnownDependenciesToClasspath(parent);
         }
 
+        try {
+            bridge = new BridgeServer(this);
+            bridge.start();
+        } catch (Exception exception) {
+            log.warn("{}", exception);
+        }
+
         restart();
     }
 
     @PreDestroy
-    public void destroy() { super.shutdown(); }
+    public void destroy() {
+        if (bridge != null) {
+            bridge.close();
+        }
+
+        super.shutdown();
+    }
 
     @Override
     public void setApplicationContext(ApplicationContext context) {
@@ -144,6 +211,8 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
     @EventListener({ ServletWebServerInitializedEvent.class })
     public void onApplicationEvent(ServletWebServerInitializedEvent event) {
         port = event.getWebServer().getPort();
+
+        shell.setStandby(shell_standby);
     }
 
     @EventListener({ ContextClosedEvent.class })
@@ -170,6 +239,7 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
     protected void restart() throws Exception {
         super.restart();
 
+        shell.stop();
         shell.restart(getIn(), getOut(), getErr());
 
         setKernelSessionId(UUID.randomUUID());
@@ -193,6 +263,16 @@ public class Kernel extends Server implements KernelApi, ApplicationContextAware
         return shell.isComplete(code);
     }
 
+    @Override
+    protected ObjectNode complete(String code, int cursor) throws Exception {
+        return shell.complete(code, cursor);
+    }
+
+    @Override
+    protected ObjectNode inspect(String code, int cursor, int detail_level) throws Exception {
+        return shell.inspect(code, cursor, detail_level);
+    }
+
     @Override
     protected void interrupt() {
         var shell = this.shell;
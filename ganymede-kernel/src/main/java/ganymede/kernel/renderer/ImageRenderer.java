@@ -50,8 +50,12 @@ public class ImageRenderer extends AbstractRenderer {
             var mimeType = reader.getOriginatingProvider().getMIMETypes()[0];
 
             if (! bundle.with(DATA).has(mimeType)) {
-                bundle.with(DATA)
-                    .put(mimeType, BASE64_ENCODER.encodeToString(bytes));
+                /*
+                 * Binary value: Sent raw over the Bridge and base64-encoded
+                 * once when the Message is serialized (stock frontends do
+                 * not read display_data buffers).
+                 */
+                bundle.with(DATA).put(mimeType, bytes);
 
                 var metadata = bundle.with(METADATA).with(mimeType);
 
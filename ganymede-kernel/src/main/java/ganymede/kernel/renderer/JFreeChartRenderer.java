@@ -87,7 +87,7 @@ public class JFreeChartRenderer extends AbstractRenderer {
                     var html = new StringWriter();
                     var name = UUID.randomUUID().toString();
                     var mimeType = bundle.with(METADATA).fieldNames().next();
-                    var base64 = bundle.with(DATA).get(mimeType).asText();
+                    var base64 = BASE64_ENCODER.encodeToString(image);
 
                     try (var writer = new PrintWriter(html)) {
                         writer.format("<img usemap=\"#%s\" src=\"data:%s;base64,%s\"/>\n", name, mimeType, base64);
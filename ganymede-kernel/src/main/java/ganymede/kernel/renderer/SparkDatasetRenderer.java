@@ -23,21 +23,40 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import ganymede.notebook.AbstractRenderer;
 import ganymede.notebook.ForClassName;
 import ganymede.notebook.Renderer;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import lombok.extern.log4j.Log4j2;
 import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.types.StructField;
+
+import static java.util.stream.Collectors.toList;
 
 /**
- * Spark {@link Dataset} {@link Renderer} service provider.
+ * Spark {@link Dataset} {@link Renderer} service provider.  Renders at
+ * most 50 rows (collected with a single Spark job and cached
+ * for the life of the {@link Dataset}).
  *
  * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
  */
 @ServiceProviderFor({ Renderer.class })
 @ForClassName("org.apache.spark.sql.Dataset")
-@NoArgsConstructor @ToString
+@NoArgsConstructor @ToString @Log4j2
 public class SparkDatasetRenderer extends AbstractRenderer {
+    private static final int VIEW = 50;
+    /*
+     * Shared by every Impl (one is created for each render).
+     */
+    private static final Map<Dataset<?>,Preview> CACHE =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
     @Override
     public Optional<SparkDatasetRenderer> instance() {
         return Optional.ofNullable(getRenderType()).map(t -> new Impl());
@@ -52,12 +71,59 @@ public class SparkDatasetRenderer extends AbstractRenderer {
     private class Impl extends SparkDatasetRenderer {
         @Override
         public void renderTo(ObjectNode bundle, Object object) {
+            var dataset = (Dataset<?>) object;
+            var preview = CACHE.computeIfAbsent(dataset, Preview::new);
             var type = getClass().getEnclosingClass();
             var resource = type.getSimpleName() + ".html";
-            var map = Map.<String,Object>of("dataset", (Dataset) object, "view", 50);
+            var map = Map.<String,Object>of("preview", preview, "view", VIEW);
             var output = ThymeleafRenderer.process(type, resource, "html", map);
 
             renderers.renderTo(bundle, output);
         }
     }
+
+    /**
+     * {@link Dataset} preview.  The rows are collected with a single
+     * {@code limit(view + 1)} job; the schema and row count estimate are
+     * taken from the {@link Dataset}'s optimized plan without running a
+     * job.
+     *
+     * {@bean.info}
+     */
+    @Getter @ToString
+    public static class Preview {
+        private final List<String> columns;
+        private final List<String> types;
+        private final List<Row> rows;
+        private final boolean truncated;
+        private final String estimate;
+
+        private Preview(Dataset<?> dataset) {
+            var fields = dataset.schema().fields();
+
+            columns = Stream.of(fields).map(StructField::name).collect(toList());
+            types = Stream.of(fields).map(t -> t.dataType().simpleString()).collect(toList());
+
+            var list = dataset.toDF().limit(VIEW + 1).collectAsList();
+
+            truncated = list.size() > VIEW;
+            rows = truncated ? list.subList(0, VIEW) : list;
+
+            String estimate = null;
+
+            if (truncated) {
+                try {
+                    var rowCount = dataset.queryExecution().optimizedPlan().stats().rowCount();
+
+                    if (rowCount.isDefined()) {
+                        estimate = rowCount.get().toString();
+                    }
+                } catch (Exception exception) {
+                    log.debug("{}", exception);
+                }
+            }
+
+            this.estimate = estimate;
+        }
+    }
 }
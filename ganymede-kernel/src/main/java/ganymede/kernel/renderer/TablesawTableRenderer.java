@@ -23,21 +23,26 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import ganymede.notebook.AbstractRenderer;
 import ganymede.notebook.ForClassName;
 import ganymede.notebook.Renderer;
-/* import ganymede.util.ObjectMappers; */
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import tech.tablesaw.api.NumericColumn;
 import tech.tablesaw.api.Table;
 import tech.tablesaw.io.string.DataFramePrinter;
 
-import static org.springframework.util.MimeTypeUtils.APPLICATION_JSON_VALUE;
 import static org.springframework.util.MimeTypeUtils.TEXT_HTML_VALUE;
-import static tech.tablesaw.api.Table.defaultWriterRegistry;
 
 /**
  * {@link.uri https://github.com/jtablesaw/tablesaw target=newtab Tablesaw}
- * {@link Table} {@link Renderer} service provider.
+ * {@link Table} {@link Renderer} service provider.  Large {@link Table}s
+ * are rendered as a head/tail preview with per-column summary statistics;
+ * see {@link #page(Table,int,int)} to render any other rows.
  *
  * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
  */
@@ -45,6 +50,8 @@ import static tech.tablesaw.api.Table.defaultWriterRegistry;
 @ForClassName("tech.tablesaw.api.Table")
 @NoArgsConstructor @ToString
 public class TablesawTableRenderer extends AbstractRenderer {
+    private static final int VIEW = 50;
+
     @Override
     public Optional<TablesawTableRenderer> instance() {
         return Optional.ofNullable(getRenderType()).map(t -> new Impl());
@@ -55,57 +62,132 @@ public class TablesawTableRenderer extends AbstractRenderer {
         throw new IllegalStateException();
     }
 
+    /**
+     * Method to render a page of a {@link Table}.  Only the rows of the
+     * page are read from the (live) {@link Table}.
+     *
+     * @param   table           The {@link Table}.
+     * @param   page            The page number (from {@code 0}).
+     * @param   size            The page size (number of rows).
+     *
+     * @return  The {@link ThymeleafRenderer.Output} to be rendered.
+     */
+    public static ThymeleafRenderer.Output page(Table table, int page, int size) {
+        var count = table.rowCount();
+        var from = Math.min(Math.max(0, page) * (long) Math.max(1, size), count);
+        var to = Math.min(from + Math.max(1, size), count);
+        var rows = new ArrayList<Integer>();
+
+        for (var row = from; row < to; row += 1) {
+            rows.add((int) row);
+        }
+
+        return render(table, rows, null);
+    }
+
+    private static ThymeleafRenderer.Output render(Table table, List<Integer> rows, List<Map<String,Object>> summary) {
+        var type = TablesawTableRenderer.class;
+        var resource = type.getSimpleName() + ".html";
+        var map = new HashMap<String,Object>();
+
+        map.put("table", table);
+        map.put("rows", rows);
+        map.put("summary", summary);
+
+        return ThymeleafRenderer.process(type, resource, "html", map);
+    }
+
     @NoArgsConstructor @ToString
     private class Impl extends TablesawTableRenderer {
         @Override
         public void renderTo(ObjectNode bundle, Object object) {
             var table = (Table) object;
-/*
-            if (! bundle.with(DATA).has(APPLICATION_JSON_VALUE)) {
-                try {
-                    if (hasWriterForExtension("json")) {
-                        var string = table.write().toString("json");
-                        var node = ObjectMappers.JSON.readTree(string);
-
-                        bundle.with(DATA)
-                            .set(APPLICATION_JSON_VALUE, node);
-                        bundle.with(METADATA)
-                            .with(APPLICATION_JSON_VALUE)
-                            .put("expanded", true);
-                    }
-                } catch (Exception exception) {
-                    exception.printStackTrace(System.err);
-                }
-            }
-*/
+            var count = table.rowCount();
+
             if (! bundle.with(DATA).has(TEXT_HTML_VALUE)) {
                 try {
-                    if (hasWriterForExtension("html")) {
-                        bundle.with(DATA)
-                            .put(TEXT_HTML_VALUE, table.write().toString("html"));
+                    var rows = new ArrayList<Integer>();
+                    List<Map<String,Object>> summary = null;
+
+                    if (count > VIEW) {
+                        for (var row = 0; row < VIEW / 2; row += 1) {
+                            rows.add(row);
+                        }
+
+                        rows.add(-1);
+
+                        for (var row = count - (VIEW - VIEW / 2); row < count; row += 1) {
+                            rows.add(row);
+                        }
+
+                        summary = summarize(table);
+                    } else {
+                        for (var row = 0; row < count; row += 1) {
+                            rows.add(row);
+                        }
                     }
+
+                    renderers.renderTo(bundle, render(table, rows, summary));
                 } catch (Exception exception) {
                     exception.printStackTrace(System.err);
                 }
             }
 
-            if (table != null) {
-                var string = "";
+            var string = "";
 
-                try (var out = new ByteArrayOutputStream()) {
-                    new DataFramePrinter(Integer.MAX_VALUE, out).print(table);
+            try (var out = new ByteArrayOutputStream()) {
+                new DataFramePrinter(VIEW, out).print(table);
 
-                    string = new String(out.toByteArray());
-                } catch (Exception exception) {
-                    exception.printStackTrace(System.err);
+                string = new String(out.toByteArray());
+            } catch (Exception exception) {
+                exception.printStackTrace(System.err);
+            }
+
+            renderers.renderTo(bundle, string);
+        }
+
+        /*
+         * One pass per column without copying: NumericColumn.min() et al.
+         * copy the column to remove missing values.
+         */
+        private List<Map<String,Object>> summarize(Table table) {
+            var list = new ArrayList<Map<String,Object>>();
+
+            for (var column : table.columns()) {
+                var map = new LinkedHashMap<String,Object>();
+                var size = column.size();
+                var missing = column.countMissing();
+
+                map.put("name", column.name());
+                map.put("type", column.type().name());
+                map.put("count", size - missing);
+                map.put("missing", missing);
+
+                if (column instanceof NumericColumn && size > missing) {
+                    var numeric = (NumericColumn<?>) column;
+                    var min = Double.POSITIVE_INFINITY;
+                    var max = Double.NEGATIVE_INFINITY;
+                    var sum = 0.0;
+
+                    for (var row = 0; row < size; row += 1) {
+                        if (! numeric.isMissing(row)) {
+                            var value = numeric.getDouble(row);
+
+                            min = Math.min(min, value);
+                            max = Math.max(max, value);
+                            sum += value;
+                        }
+                    }
+
+                    map.put("min", min);
+                    map.put("max", max);
+                    map.put("mean", sum / (size - missing));
                 }
 
-                renderers.renderTo(bundle, string);
+                list.add(map);
             }
-        }
 
-        private boolean hasWriterForExtension(String extension) {
-            return defaultWriterRegistry.getWriterForExtension(extension) != null;
+            return list;
         }
     }
 }
@@ -24,12 +24,14 @@ import ganymede.notebook.AbstractRenderer;
 import ganymede.notebook.ForClass;
 import ganymede.notebook.Renderer;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.util.StreamUtils;
 import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.TemplateSpec;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.extras.java8time.dialect.Java8TimeDialect;
 import org.thymeleaf.templatemode.TemplateMode;
@@ -53,19 +55,27 @@ import static org.springframework.util.MimeTypeUtils.TEXT_XML_VALUE;
 @ForClass(ThymeleafRenderer.Output.class)
 @NoArgsConstructor @ToString
 public class ThymeleafRenderer extends AbstractRenderer {
-    private static final StringTemplateResolver RESOLVER;
     private static final TemplateEngine ENGINE;
+    private static final TemplateEngine CACHED;
+    private static final ConcurrentHashMap<Key,String> TEMPLATES = new ConcurrentHashMap<>();
 
     static {
-        RESOLVER = new StringTemplateResolver();
-
         ENGINE = new TemplateEngine();
-        ENGINE.setTemplateResolver(RESOLVER);
+        ENGINE.setTemplateResolver(new StringTemplateResolver());
         ENGINE.addDialect(new Java8TimeDialect());
+
+        var resolver = new StringTemplateResolver();
+
+        resolver.setCacheable(true);
+
+        CACHED = new TemplateEngine();
+        CACHED.setTemplateResolver(resolver);
+        CACHED.addDialect(new Java8TimeDialect());
     }
 
     /**
-     * Method to evaluate a template from a {@link String}.
+     * Method to evaluate a template from a {@link String}.  The template
+     * is parsed on every call.
      *
      * @param template      The template {@link String}.
      * @param mode          The template resolver mode.
@@ -74,13 +84,12 @@ public class ThymeleafRenderer extends AbstractRenderer {
      * @return  The {@link Output} to be renderered.
      */
     public static Output process(String template, String mode, Map<String,Object> map) {
-        RESOLVER.setTemplateMode(mode);
-
-        return new Output(RESOLVER.getTemplateMode(), ENGINE.process(template, new Context(null, map)));
+        return process(ENGINE, template, TemplateMode.parse(mode), map);
     }
 
     /**
-     * Method to evaluate a template from a resource.
+     * Method to evaluate a template from a resource.  Each
+     * ({@link Class}, resource, mode) template is loaded and parsed once.
      *
      * @param type          The {@link Class} to search relative for the
      *                      resource.
@@ -91,7 +100,21 @@ public class ThymeleafRenderer extends AbstractRenderer {
      * @return  The {@link Output} to be renderered.
      */
     public static Output process(Class<?> type, String name, String mode, Map<String,Object> map) {
-        return process(getResourceAsString(type, name), mode, map);
+        var key = new Key(type, name, TemplateMode.parse(mode));
+        var template = TEMPLATES.computeIfAbsent(key, k -> getResourceAsString(k.getType(), k.getName()));
+
+        return process(CACHED, template, key.getMode(), map);
+    }
+
+    /*
+     * The template mode is specified per call (TemplateSpec) rather than
+     * configured on the (shared) resolver so concurrent calls with
+     * different modes do not interfere.
+     */
+    private static Output process(TemplateEngine engine, String template, TemplateMode mode, Map<String,Object> map) {
+        var spec = new TemplateSpec(template, null, mode, null);
+
+        return new Output(mode, engine.process(spec, new Context(null, map)));
     }
 
     @Override
@@ -139,6 +162,13 @@ public class ThymeleafRenderer extends AbstractRenderer {
         }
     }
 
+    @Data
+    private static class Key {
+        private final Class<?> type;
+        private final String name;
+        private final TemplateMode mode;
+    }
+
     /**
      * Customized {@link Output Output} for {@link ThymeleafRenderer}.
      *
@@ -23,7 +23,9 @@ import java.lang.reflect.Method;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 import org.zeromq.SocketType;
@@ -44,7 +46,7 @@ public abstract class Channel {
 
     /**
      * Method to schedule creation of and binding to a {@link ZMQ.Socket}
-     * for this address.
+     * for this address (on the {@link Server}'s {@link Reactor}).
      *
      * @param   connection      The kernel {@link Connection}.
      * @param   address         The address of the {@link ZMQ.Socket} to be
@@ -54,16 +56,14 @@ public abstract class Channel {
         Dispatcher dispatcher = new Dispatcher(this, connection, address);
 
         getDispatcherQueue().add(dispatcher);
-        getServer().submit(dispatcher);
-
-        getServer().setCorePoolSize(Math.max(getServer().getActiveCount() + 4, getServer().getCorePoolSize()));
+        getServer().getReactor().register(dispatcher);
     }
 
     /**
      * Callback method to receive and dispatch a {@link Message}.  This
-     * method is called on the same thread that the {@link ZMQ.Socket} was
-     * created on and the implementation may call {@link ZMQ.Socket} methods
-     * (including {@code send()}).
+     * method is called on the {@link Reactor} thread (which created the
+     * {@link ZMQ.Socket}) and the implementation may call
+     * {@link ZMQ.Socket} methods (including {@code send()}).
      *
      * @param   dispatcher      The {@link Dispatcher}.
      * @param   socket          The {@link ZMQ.Socket}.
@@ -73,20 +73,26 @@ public abstract class Channel {
 
     /**
      * Callback method to {@link Server#stamp(Message) stamp} and dispatch a
-     * {@link Message}.  This method is called on the same thread that the
-     * {@link ZMQ.Socket} was created on and the implementation may call
-     * {@link ZMQ.Socket} methods (including {@code send()}).
+     * {@link Message}.  If called on the same thread that the
+     * {@link ZMQ.Socket} was created on the implementation may call
+     * {@link ZMQ.Socket} methods (including {@code send()}); otherwise,
+     * the {@link Message} is handed to the {@link Dispatcher} to
+     * {@link Dispatcher#send(Message) send}.
      *
      * @param   dispatcher      The {@link Dispatcher}.
      * @param   socket          The {@link ZMQ.Socket}.
      * @param   message         The {@link Message}.
      */
     protected void send(Dispatcher dispatcher, ZMQ.Socket socket, Message message) {
-        getServer().stamp(message);
+        if (dispatcher.isDispatchThread()) {
+            getServer().stamp(message);
 
-        log.debug("{}\n{}", dispatcher.getAddress(), message);
+            log.debug("{}\n{}", dispatcher.getAddress(), message);
 
-        message.send(dispatcher.getConnection(), socket);
+            message.send(dispatcher.getConnection(), socket);
+        } else {
+            dispatcher.send(message);
+        }
     }
 
     /**
@@ -224,6 +230,20 @@ public abstract class Channel {
     @ToString @Log4j2
     public static class IOPub extends Protocol {
 
+        /**
+         * Interval (in milliseconds) to wait for subsequent {@code stream}
+         * output to coalesce before publishing.
+         */
+        @Getter @Setter
+        private volatile long flushWindow = 10;
+
+        /**
+         * Interval (in milliseconds) a {@code stream} {@link Message} may
+         * wait for queue space before it is dropped.
+         */
+        @Getter @Setter
+        private volatile long publishTimeout = 5000;
+
         /**
          * Sole constructor.
          *
@@ -231,6 +251,43 @@ public abstract class Channel {
          */
         public IOPub(Server server) { super(server, SocketType.PUB); }
 
+        /**
+         * Method to get the total depth of the {@link Dispatcher} queues.
+         *
+         * @return  The number of queued {@link Message}s.
+         */
+        public int getQueueDepth() {
+            return getDispatcherQueue().stream().mapToInt(Dispatcher::getQueueDepth).sum();
+        }
+
+        /**
+         * Method to get the total number of {@link Message}s published.
+         *
+         * @return  The count of published {@link Message}s.
+         */
+        public long getPublished() {
+            return getDispatcherQueue().stream().mapToLong(Dispatcher::getPublished).sum();
+        }
+
+        /**
+         * Method to get the total number of {@code stream}
+         * {@link Message}s coalesced.
+         *
+         * @return  The count of coalesced {@link Message}s.
+         */
+        public long getCoalesced() {
+            return getDispatcherQueue().stream().mapToLong(Dispatcher::getCoalesced).sum();
+        }
+
+        /**
+         * Method to get the total number of {@link Message}s dropped.
+         *
+         * @return  The count of dropped {@link Message}s.
+         */
+        public long getDropped() {
+            return getDispatcherQueue().stream().mapToLong(Dispatcher::getDropped).sum();
+        }
+
         /**
          * Method to schedule a {@link Message} for publishing.
          *
@@ -295,13 +352,32 @@ public abstract class Channel {
 
         @Override
         protected void dispatch(Dispatcher dispatcher, ZMQ.Socket socket, Message message) {
+            var status = isStatusPublished(message);
+
             try {
-                iopub.pub(message.status(Message.status.busy));
+                if (status) {
+                    iopub.pub(message.status(Message.status.busy));
+                }
 
                 super.dispatch(dispatcher, socket, message);
             } finally {
-                iopub.pub(message.status(Message.status.idle));
+                if (status) {
+                    iopub.pub(message.status(Message.status.idle));
+                }
             }
         }
+
+        /**
+         * Method to determine if {@code busy} and {@code idle}
+         * {@code status} {@link Message}s are published around the
+         * handling of a request.  Default implementation returns
+         * {@code true}.
+         *
+         * @param   message     The request {@link Message}.
+         *
+         * @return  {@code true} to publish the {@code status}
+         *          {@link Message}s; {@code false} otherwise.
+         */
+        protected boolean isStatusPublished(Message message) { return true; }
     }
 }
@@ -18,18 +18,28 @@ package ganymede.server;
  * limitations under the License.
  * ##########################################################################
  */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 import org.zeromq.ZMQ;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Jupyter {@link ZMQ.Socket} {@link Dispatcher}.  All {@link ZMQ.Socket}
- * creation and manipulation calls happens in the {@link #run()} method.
+ * creation and manipulation calls happen on the {@link Reactor} thread.
  * See {@link.uri https://zguide.zeromq.org/ target=newtab ØMQ - The Guide},
  * {@link.uri https://zguide.zeromq.org/docs/chapter3/ target=newtab Chapter 3}.
  *
@@ -38,11 +48,29 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
  */
 @Data @Log4j2
-public class Dispatcher implements Runnable {
+public class Dispatcher {
     @NonNull private final Channel channel;
     @NonNull private final Connection connection;
     @NonNull private final String address;
-    private final BlockingQueue<Message> outgoing = new SynchronousQueue<>();
+    @Getter(AccessLevel.NONE)
+    private final BlockingQueue<Message> outgoing = new LinkedBlockingQueue<>(CAPACITY);
+    @Getter(AccessLevel.NONE)
+    private final Queue<Message> replies = new ConcurrentLinkedQueue<>();
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private ZMQ.Socket socket = null;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private volatile boolean urgent = false;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private long deadline = 0;
+    private final AtomicLong published = new AtomicLong(0);
+    private final AtomicLong coalesced = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    /**
+     * The capacity of the outgoing ({@link Channel.IOPub IOPub})
+     * {@link Message} queue.
+     */
+    public static final int CAPACITY = 4096;
 
     /**
      * Callback method to dispatch a received message.  Default
@@ -69,7 +97,11 @@ public class Dispatcher implements Runnable {
     }
 
     /**
-     * Method to schedule a message for publishing.
+     * Method to schedule a message for publishing.  Producers block while
+     * the outgoing queue is full.  {@code stream} {@link Message}s that
+     * cannot be queued within
+     * {@link Channel.IOPub#getPublishTimeout() publish timeout} are
+     * dropped (and counted).
      *
      * @param   message         The message to send.
      */
@@ -79,7 +111,38 @@ public class Dispatcher implements Runnable {
         switch (type) {
         case PUB:
             try {
-                outgoing.put(message);
+                if (isDispatchThread()) {
+                    /*
+                     * The Reactor thread must not block on its own queue.
+                     * If the queue cannot be drained (the socket is not
+                     * open) the Message is dropped.
+                     */
+                    if (! outgoing.offer(message)) {
+                        flush(true);
+
+                        if (! outgoing.offer(message)) {
+                            if (dropped.getAndIncrement() == 0) {
+                                log.warn("{}: Dropping output", getAddress());
+                            }
+                        }
+                    }
+                } else if (isStream(message)) {
+                    var timeout = ((Channel.IOPub) getChannel()).getPublishTimeout();
+
+                    if (! outgoing.offer(message, timeout, MILLISECONDS)) {
+                        if (dropped.getAndIncrement() == 0) {
+                            log.warn("{}: Dropping stream output", getAddress());
+                        }
+                    }
+                } else {
+                    outgoing.put(message);
+                }
+
+                if (! isStream(message)) {
+                    urgent = true;
+                }
+
+                getReactor().wakeup();
             } catch (InterruptedException exception) {
                 log.warn("{}", exception);
             }
@@ -90,57 +153,227 @@ public class Dispatcher implements Runnable {
         }
     }
 
-    @Override
-    public void run() {
-        var server = getChannel().getServer();
-        var context = server.getContext();
-        var digester = getConnection().getDigester();
-        var type = getChannel().getSocketType();
+    /**
+     * Method to schedule a {@link Message} to be sent on this
+     * {@link Dispatcher}'s {@link ZMQ.Socket}.  For use by threads other
+     * than the {@link Dispatcher} thread (which owns the
+     * {@link ZMQ.Socket}).
+     *
+     * @param   message         The {@link Message} to send.
+     */
+    public void send(Message message) {
+        replies.add(message);
+        getReactor().wakeup();
+    }
 
-        while (! server.isTerminating()) {
-            try (var socket = context.socket(type)) {
-                if (socket.bind(getAddress())) {
-                    log.info("Bound {} {}", type, address);
-                } else {
-                    log.warn("Could not bind to {}", address);
-                }
+    /**
+     * Method to determine if the current {@link Thread} is the
+     * {@link Dispatcher} ({@link Reactor}) thread.
+     *
+     * @return  {@code true} if the current {@link Thread} owns the
+     *          {@link ZMQ.Socket}; {@code false} otherwise.
+     */
+    public boolean isDispatchThread() { return getReactor().isReactorThread(); }
+
+    private Reactor getReactor() { return getChannel().getServer().getReactor(); }
 
-                switch (type) {
-                case REP:
-                case ROUTER:
-                    try (var poller = context.poller(1)) {
-                        poller.register(socket, ZMQ.Poller.POLLIN);
+    /**
+     * Method to get the current depth of the outgoing {@link Message}
+     * queue.
+     *
+     * @return  The number of queued {@link Message}s.
+     */
+    public int getQueueDepth() { return outgoing.size(); }
 
-                        while (! server.isTerminating()) {
-                            int events = poller.poll(100);
+    /**
+     * Method to get the number of {@link Message}s published.
+     *
+     * @return  The count of published {@link Message}s.
+     */
+    public long getPublished() { return published.get(); }
 
-                            if (events > 0 && poller.pollin(0)) {
-                                var message = socket.recv();
+    /**
+     * Method to get the number of {@code stream} {@link Message}s merged
+     * into a preceding {@link Message}.
+     *
+     * @return  The count of coalesced {@link Message}s.
+     */
+    public long getCoalesced() { return coalesced.get(); }
 
-                                if (message != null) {
-                                    dispatch(socket, message);
-                                }
-                            }
-                        }
-                    }
-                    break;
+    /**
+     * Method to get the number of {@link Message}s dropped because the
+     * outgoing queue remained full.
+     *
+     * @return  The count of dropped {@link Message}s.
+     */
+    public long getDropped() { return dropped.get(); }
 
-                case PUB:
-                    while (! server.isTerminating()) {
-                        var message = outgoing.poll(100, MILLISECONDS);
+    private boolean isStream(Message message) {
+        return Objects.equals(message.msg_type(), "stream");
+    }
 
-                        if (message != null) {
-                            dispatch(socket, message);
-                        }
-                    }
-                    break;
+    private boolean isCoalescable(Message left, Message right) {
+        return (isStream(left) && isStream(right)
+                && Objects.equals(left.parentHeader().get("msg_id"), right.parentHeader().get("msg_id"))
+                && Objects.equals(left.content().get("name"), right.content().get("name")));
+    }
+
+    private List<Message> coalesce(List<Message> batch) {
+        var list = new ArrayList<Message>(batch.size());
+        Message first = null;
+        StringBuilder text = null;
 
-                default:
-                    throw new IllegalStateException("Unsupported SocketType: " + type);
+        for (var next : batch) {
+            if (first != null && isCoalescable(first, next)) {
+                if (text == null) {
+                    text = new StringBuilder(first.content().at("/text").asText());
                 }
+
+                text.append(next.content().at("/text").asText());
+                coalesced.incrementAndGet();
+            } else {
+                if (first != null) {
+                    list.add(merge(first, text));
+                }
+
+                first = next;
+                text = null;
+            }
+        }
+
+        if (first != null) {
+            list.add(merge(first, text));
+        }
+
+        return list;
+    }
+
+    private Message merge(Message message, StringBuilder text) {
+        if (text != null) {
+            /*
+             * The Message is shared with the other IOPub Dispatchers.
+             */
+            message = message.copy();
+            message.content().put("text", text.toString());
+        }
+
+        return message;
+    }
+
+    /**
+     * Method to create and bind {@link.this} {@link Dispatcher}'s
+     * {@link ZMQ.Socket}.  Called on the {@link Reactor} thread.
+     *
+     * @param   context         The {@link ZMQ.Context}.
+     *
+     * @return  The {@link ZMQ.Socket}.
+     */
+    protected ZMQ.Socket open(ZMQ.Context context) {
+        var server = getChannel().getServer();
+        var type = getChannel().getSocketType();
+
+        socket = context.socket(type);
+        socket.setSndHWM(server.getSndHWM());
+        socket.setRcvHWM(server.getRcvHWM());
+        socket.setLinger(server.getLinger());
+
+        if (socket.bind(getAddress())) {
+            log.info("Bound {} {}", type, address);
+        } else {
+            log.warn("Could not bind to {}", address);
+        }
+
+        return socket;
+    }
+
+    /**
+     * Method to receive and dispatch all {@link Message}s available on
+     * {@link.this} {@link Dispatcher}'s {@link ZMQ.Socket}.  Called on the
+     * {@link Reactor} thread when the {@link ZMQ.Socket} is readable.
+     */
+    protected void receive() {
+        for (var frame = socket.recv(ZMQ.DONTWAIT); frame != null; frame = socket.recv(ZMQ.DONTWAIT)) {
+            try {
+                dispatch(socket, frame);
             } catch (Exception exception) {
                 log.warn("{}", exception);
             }
         }
     }
+
+    /**
+     * Method to send queued {@link Message}s.  Called on the
+     * {@link Reactor} thread after every wake-up.  Queued
+     * {@code stream} output is held for up to the
+     * {@link Channel.IOPub#getFlushWindow() flush window} to coalesce
+     * unless another type of {@link Message} is queued behind it.
+     *
+     * @return  The number of milliseconds until {@link.this}
+     *          {@link Dispatcher} must be flushed again; {@code -1} if
+     *          nothing is pending.
+     */
+    protected long flush() { return flush(false); }
+
+    /**
+     * Method to send queued {@link Message}s.  Called on the
+     * {@link Reactor} thread.
+     *
+     * @param   force           {@code true} to send queued {@code stream}
+     *                          output without waiting for the
+     *                          {@link Channel.IOPub#getFlushWindow() flush window}.
+     *
+     * @return  The number of milliseconds until {@link.this}
+     *          {@link Dispatcher} must be flushed again; {@code -1} if
+     *          nothing is pending.
+     */
+    protected long flush(boolean force) {
+        var next = -1L;
+
+        if (socket == null) {
+            return next;
+        }
+
+        for (var reply = replies.poll(); reply != null; reply = replies.poll()) {
+            getChannel().send(this, socket, reply);
+        }
+
+        if (! outgoing.isEmpty()) {
+            var now = System.nanoTime();
+
+            if (deadline == 0) {
+                var window = ((Channel.IOPub) getChannel()).getFlushWindow();
+
+                deadline = now + MILLISECONDS.toNanos(window);
+            }
+
+            if (force || urgent || now - deadline >= 0) {
+                var batch = new ArrayList<Message>(outgoing.size());
+
+                urgent = false;
+                deadline = 0;
+
+                outgoing.drainTo(batch);
+
+                for (var item : coalesce(batch)) {
+                    dispatch(socket, item);
+                    published.incrementAndGet();
+                }
+            } else {
+                next = Math.max(1, NANOSECONDS.toMillis(deadline - now));
+            }
+        }
+
+        return next;
+    }
+
+    /**
+     * Method to close {@link.this} {@link Dispatcher}'s
+     * {@link ZMQ.Socket}.  Called on the {@link Reactor} thread.
+     */
+    protected void close() {
+        if (socket != null) {
+            socket.close();
+            socket = null;
+        }
+    }
 }
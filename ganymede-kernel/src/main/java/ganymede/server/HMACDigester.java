@@ -18,17 +18,23 @@ package ganymede.server;
  * limitations under the License.
  * ##########################################################################
  */
-import java.math.BigInteger;
-import java.util.stream.Stream;
+import java.security.MessageDigest;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 import org.zeromq.ZMQ;
 
+import static lombok.AccessLevel.NONE;
+
 /**
  * HMAC message digester.  See discussion in
  * {@link.uri https://jupyter-client.readthedocs.io/en/latest/messaging.html#the-wire-protocol target=newtab The Wire Protocol}.
+ * Each thread computes digests with its own clone of the configured
+ * {@link Mac} so no lock is required.
  *
  * {@bean.info}
  *
@@ -36,7 +42,11 @@ import org.zeromq.ZMQ;
  */
 @Data @Log4j2
 public class HMACDigester {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
     private final Mac mac;
+    @Getter(NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
 
     /**
      * Sole constructor.
@@ -59,6 +69,16 @@ public class HMACDigester {
         this.mac = mac;
     }
 
+    private Mac newMac() {
+        try {
+            synchronized (mac) {
+                return (Mac) mac.clone();
+            }
+        } catch (CloneNotSupportedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
     /**
      * Method to calculate a digest for message frames.  See
      * {@link Mac#update(byte[])} and {@link Mac#doFinal()}.
@@ -69,29 +89,36 @@ public class HMACDigester {
      * @return  The digest {@link String}.
      */
     public String digest(byte[]... frames) {
-        String digest = "";
+        var digest = "";
 
         if (mac != null) {
-            synchronized (mac) {
-                Stream.of(frames).forEach(mac::update);
+            var bytes = doFinal(frames);
+            var chars = new char[2 * bytes.length];
 
-                var bytes = mac.doFinal();
-
-                digest = new BigInteger(1, bytes).toString(16);
+            for (int i = 0; i < bytes.length; i += 1) {
+                chars[2 * i] = HEX[(bytes[i] >> 4) & 0x0F];
+                chars[2 * i + 1] = HEX[bytes[i] & 0x0F];
             }
 
-            var length = 2 * mac.getMacLength();
-
-            while (digest.length() < length) {
-                digest = "0" + digest;
-            }
+            digest = new String(chars);
         }
 
         return digest;
     }
 
+    private byte[] doFinal(byte[]... frames) {
+        var mac = macs.get();
+
+        for (var frame : frames) {
+            mac.update(frame);
+        }
+
+        return mac.doFinal();
+    }
+
     /**
-     * Method to verify a digest for message frames.
+     * Method to verify a digest for message frames.  The comparison is
+     * constant-time (see {@link MessageDigest#isEqual(byte[],byte[])}).
      *
      * @param   digest          The digest to verify.
      * @param   frames          The {@code byte[]} frames of the message to
@@ -101,6 +128,38 @@ public class HMACDigester {
      *          calculated; {@code false} otherwise.
      */
     public boolean verify(String digest, byte[]... frames) {
-        return digest.equals(digest(frames));
+        var verified = false;
+
+        if (mac != null) {
+            var expected = doFinal(frames);
+            var actual = decode(digest, expected.length);
+
+            verified = (actual != null) && MessageDigest.isEqual(expected, actual);
+        } else {
+            verified = digest.isEmpty();
+        }
+
+        return verified;
+    }
+
+    private byte[] decode(String digest, int length) {
+        byte[] bytes = null;
+
+        if (digest.length() == 2 * length) {
+            bytes = new byte[length];
+
+            for (int i = 0; i < length; i += 1) {
+                var high = Character.digit(digest.charAt(2 * i), 16);
+                var low = Character.digit(digest.charAt(2 * i + 1), 16);
+
+                if (high < 0 || low < 0) {
+                    return null;
+                }
+
+                bytes[i] = (byte) ((high << 4) | low);
+            }
+        }
+
+        return bytes;
     }
 }
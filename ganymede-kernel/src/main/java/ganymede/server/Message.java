@@ -25,14 +25,18 @@ import ganymede.io.PrintStreamBuffer;
 import ganymede.notebook.Magic;
 import ganymede.notebook.Renderer;
 import ganymede.util.ObjectMappers;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Stream;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.extern.log4j.Log4j2;
 import org.zeromq.ZMQ;
@@ -42,7 +46,10 @@ import static java.time.ZoneOffset.UTC;
 import static java.time.ZonedDateTime.now;
 import static java.time.format.DateTimeFormatter.ISO_INSTANT;
 import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 
 /**
@@ -56,92 +63,144 @@ public class Message {
     private static final String DELIMITER_STRING = "<IDS|MSG>";
     private static final byte[] DELIMITER_BYTES = DELIMITER_STRING.getBytes(ZMQ.CHARSET);
     private static final ZData DELIMITER_ZDATA = new ZData(DELIMITER_BYTES);
+    private static final byte[] EMPTY_OBJECT_BYTES = "{}".getBytes(ZMQ.CHARSET);
 
-    private static final StackWalker WALKER = StackWalker.getInstance();
+    /*
+     * Parsed types for the messages defined by the protocol; any other
+     * msg_type is parsed on demand so peers cannot grow this Map.
+     */
+    private static final Map<String,Type> TYPES =
+        Stream.concat(Stream.of("execute", "inspect", "complete", "history",
+                                "is_complete", "comm_info", "kernel_info",
+                                "shutdown", "interrupt", "debug", "input",
+                                "connect", "comm_open", "comm_msg", "comm_close")
+                      .flatMap(t -> Stream.of(t + "_request", t + "_reply")),
+                      Stream.of("stream", "display_data", "update_display_data",
+                                "execute_input", "execute_result", "error",
+                                "status", "clear_output", "debug_event",
+                                "comm_open", "comm_msg", "comm_close"))
+        .distinct()
+        .collect(toMap(identity(), Type::new));
 
     /* private enum Status { ok, error } */
 
+    /**
+     * {@link Message} header field names.
+     */
+    public enum Header { msg_id, msg_type, session, username, date, version };
+
     private final Connection connection;
-    protected final List<byte[]> envelope = new LinkedList<>();
+    protected final List<byte[]> envelope = new ArrayList<>();
     protected ObjectNode header = new ObjectNode(JsonNodeFactory.instance);
     protected ObjectNode parentHeader = new ObjectNode(JsonNodeFactory.instance);
     protected ObjectNode metadata = new ObjectNode(JsonNodeFactory.instance);
     protected ObjectNode content = new ObjectNode(JsonNodeFactory.instance);
-    protected final List<byte[]> buffers = new LinkedList<>();
+    protected final List<byte[]> buffers = new ArrayList<>();
+    /*
+     * Received (serialized) frames not yet parsed.  See parentHeader(),
+     * metadata(), and content().
+     */
+    @Getter(NONE) @Setter(NONE) @EqualsAndHashCode.Exclude
+    private byte[] parentHeaderFrame = null;
+    @Getter(NONE) @Setter(NONE) @EqualsAndHashCode.Exclude
+    private byte[] metadataFrame = null;
+    @Getter(NONE) @Setter(NONE) @EqualsAndHashCode.Exclude
+    private byte[] contentFrame = null;
 
     {
         username(System.getProperty("user.name"));
         msg_id(UUID.randomUUID().toString());
     }
 
-    public String msg_id() {
-        JsonNode node = header().get(getCallingMethodName(1));
+    /**
+     * Method to get the parent header.  A received {@link Message}'s parent
+     * header is parsed on first access.
+     *
+     * @return  The parent header {@link ObjectNode}.
+     */
+    public ObjectNode parentHeader() {
+        if (parentHeaderFrame != null) {
+            parentHeader = deserialize(parentHeaderFrame);
+            parentHeaderFrame = null;
+        }
 
-        return asText(node);
+        return parentHeader;
     }
 
-    public Message msg_id(String value) {
-        header().put(getCallingMethodName(1), value);
+    /**
+     * Method to get the metadata.  A received {@link Message}'s metadata
+     * is parsed on first access.
+     *
+     * @return  The metadata {@link ObjectNode}.
+     */
+    public ObjectNode metadata() {
+        if (metadataFrame != null) {
+            metadata = deserialize(metadataFrame);
+            metadataFrame = null;
+        }
 
-        return this;
+        return metadata;
     }
 
-    public String msg_type() {
-        JsonNode node = header().get(getCallingMethodName(1));
+    /**
+     * Method to get the content.  A received {@link Message}'s content is
+     * parsed on first access.
+     *
+     * @return  The content {@link ObjectNode}.
+     */
+    public ObjectNode content() {
+        if (contentFrame != null) {
+            content = deserialize(contentFrame);
+            contentFrame = null;
+        }
 
-        return asText(node);
+        return content;
     }
 
-    public Message msg_type(String value) {
-        header().put(getCallingMethodName(1), value);
+    public String msg_id() { return asText(header().get(Header.msg_id.name())); }
+
+    public Message msg_id(String value) {
+        header().put(Header.msg_id.name(), value);
 
         return this;
     }
 
-    public String session() {
-        JsonNode node = header().get(getCallingMethodName(1));
+    public String msg_type() { return asText(header().get(Header.msg_type.name())); }
+
+    public Message msg_type(String value) {
+        header().put(Header.msg_type.name(), value);
 
-        return asText(node);
+        return this;
     }
 
+    public String session() { return asText(header().get(Header.session.name())); }
+
     public Message session(String value) {
-        header().put(getCallingMethodName(1), value);
+        header().put(Header.session.name(), value);
 
         return this;
     }
 
-    public String username() {
-        JsonNode node = header().get(getCallingMethodName(1));
-
-        return asText(node);
-    }
+    public String username() { return asText(header().get(Header.username.name())); }
 
     public Message username(String value) {
-        header().put(getCallingMethodName(1), value);
+        header().put(Header.username.name(), value);
 
         return this;
     }
 
-    public String date() {
-        JsonNode node = header().get(getCallingMethodName(1));
-
-        return asText(node);
-    }
+    public String date() { return asText(header().get(Header.date.name())); }
 
     public Message date(String value) {
-        header().put(getCallingMethodName(1), value);
+        header().put(Header.date.name(), value);
 
         return this;
     }
 
-    public String version() {
-        JsonNode node = header().get(getCallingMethodName(1));
-
-        return asText(node);
-    }
+    public String version() { return asText(header().get(Header.version.name())); }
 
     public Message version(String value) {
-        header().put(getCallingMethodName(1), value);
+        header().put(Header.version.name(), value);
 
         return this;
     }
@@ -155,37 +214,36 @@ public class Message {
      *
      * @return  The parsed action.
      */
-    public String getMessageTypeAction() {
-        var action = msg_type().toLowerCase();
-        var index = action.lastIndexOf("_");
-
-        if (index != -1) {
-            action = action.substring(0, index);
-        }
-
-        return action;
-    }
+    public String getMessageTypeAction() { return type().getAction(); }
 
     /**
      * Method to determine if this message is a "reply".
      *
      * @return  {@code true} if it is a "reply"; {@code false} otherwise.
      */
-    public boolean isReply() {
-        var type = msg_type();
-
-        return type != null && type.toLowerCase().endsWith("_reply");
-    }
+    public boolean isReply() { return type().isReply(); }
 
     /**
      * Method to determine if this message is a "request".
      *
      * @return  {@code true} if it is a "request"; {@code false} otherwise.
      */
-    public boolean isRequest() {
-        var type = msg_type();
+    public boolean isRequest() { return type().isRequest(); }
+
+    private Type type() {
+        var msg_type = msg_type();
 
-        return type != null && type.toLowerCase().endsWith("_request");
+        var type = Type.NONE;
+
+        if (msg_type != null) {
+            type = TYPES.get(msg_type);
+
+            if (type == null) {
+                type = new Type(msg_type);
+            }
+        }
+
+        return type;
     }
 
     /**
@@ -245,7 +303,7 @@ public class Message {
      * {@link.uri https://jupyter-client.readthedocs.io/en/latest/messaging.html#streams-stdout-stderr-etc stream}.
      */
     public Message stream(stream stream, String text) {
-        var message = new Pub(getCallingMethodName(1), this);
+        var message = new Pub("stream", this);
 
         message.content().put("name", stream.name());
         message.content().put("text", text);
@@ -258,7 +316,7 @@ public class Message {
      * {@link.uri https://jupyter-client.readthedocs.io/en/latest/messaging.html#code-inputs execute_input}.
      */
     public Message execute_input(String code, int execution_count) {
-        var message = new Pub(getCallingMethodName(1), this);
+        var message = new Pub("execute_input", this);
 
         message.content().put("code", code);
         message.content().put("execution_count", execution_count);
@@ -271,7 +329,7 @@ public class Message {
      * {@link.uri https://jupyter-client.readthedocs.io/en/latest/messaging.html#id6 execute_result}.
      */
     public Message execute_result(int execution_count, ObjectNode content) {
-        var message = new Pub(getCallingMethodName(1), this);
+        var message = new Pub("execute_result", this);
 
         message.content().put("execution_count", execution_count);
         message.content().setAll(content);
@@ -292,7 +350,7 @@ public class Message {
      * {@link.uri https://jupyter-client.readthedocs.io/en/latest/messaging.html#display-data display_data}.
      */
     public Message display_data(ObjectNode content) {
-        var message = new Pub(getCallingMethodName(1), this);
+        var message = new Pub("display_data", this);
 
         message.content().setAll(content);
         message.content().with("transient");
@@ -319,7 +377,7 @@ public class Message {
      * {@link.uri https://jupyter-client.readthedocs.io/en/latest/messaging.html#kernel-status status}.
      */
     public static Message status(status status, Message request) {
-        var message = new Pub(getCallingMethodName(1), request);
+        var message = new Pub("status", request);
 
         message.content().put("execution_state", status.name());
 
@@ -361,15 +419,15 @@ public class Message {
      * @return  The {@link List} of serialized frames.
      */
     public List<byte[]> serialize(HMACDigester digester) {
-        var frames = new LinkedList<byte[]>();
+        var frames = new ArrayList<byte[]>(envelope().size() + 6 + buffers().size());
 
         frames.addAll(envelope());
         frames.add(DELIMITER_BYTES);
 
         var header = serialize(header());
-        var parentHeader = serialize(parentHeader());
-        var metadata = serialize(metadata());
-        var content = serialize(content());
+        var parentHeader = (parentHeaderFrame != null) ? parentHeaderFrame : serialize(parentHeader());
+        var metadata = (metadataFrame != null) ? metadataFrame : serialize(metadata());
+        var content = (contentFrame != null) ? contentFrame : serialize(content());
 
         var digest = "";
 
@@ -387,15 +445,15 @@ public class Message {
     }
 
     private byte[] serialize(JsonNode node) {
-        var string = "{}";
+        var bytes = EMPTY_OBJECT_BYTES;
 
         try {
-            string = ObjectMappers.JSON.writeValueAsString(node);
+            bytes = ObjectMappers.WIRE_WRITER.writeValueAsBytes(node);
         } catch (Exception exception) {
             log.warn("{}", exception);
         }
 
-        return string.getBytes(ZMQ.CHARSET);
+        return bytes;
     }
 
     /**
@@ -406,7 +464,7 @@ public class Message {
      * @param   frame           The first message frame.
      */
     public static Message receive(Connection connection, ZMQ.Socket socket, byte[] frame) {
-        var envelope = new LinkedList<byte[]>();
+        var envelope = new ArrayList<byte[]>(1);
 
         while (! DELIMITER_ZDATA.equals(frame)) {
             envelope.add(frame);
@@ -419,7 +477,7 @@ public class Message {
         var parentHeader = recv(socket);
         var metadata = recv(socket);
         var content = recv(socket);
-        var buffers = new LinkedList<byte[]>();
+        var buffers = new ArrayList<byte[]>(0);
 
         while (socket.hasReceiveMore()) {
             buffers.add(recv(socket));
@@ -437,9 +495,9 @@ public class Message {
 
         message.envelope().addAll(envelope);
         message.header().setAll(deserialize(header));
-        message.parentHeader().setAll(deserialize(parentHeader));
-        message.metadata().setAll(deserialize(metadata));
-        message.content().setAll(deserialize(content));
+        message.parentHeaderFrame = parentHeader;
+        message.metadataFrame = metadata;
+        message.contentFrame = content;
         message.buffers().addAll(buffers);
 
         return message;
@@ -450,10 +508,10 @@ public class Message {
     }
 
     private static ObjectNode deserialize(byte[] bytes) {
-        ObjectNode value = null;
+        var value = new ObjectNode(JsonNodeFactory.instance);
 
         try {
-            value = (ObjectNode) ObjectMappers.JSON.readTree(new String(bytes, ZMQ.CHARSET));
+            value = (ObjectNode) ObjectMappers.WIRE_READER.readTree(bytes);
         } catch (Exception exception) {
             log.warn("{}", exception);
         }
@@ -508,16 +566,6 @@ public class Message {
         return Renderer.MAP.render(object, alternates);
     }
 
-    private static String getCallingMethodName(int skip) {
-        String name =
-            WALKER.walk(t -> t.map(StackWalker.StackFrame::getMethodName)
-                                  .skip(skip)
-                                  .findFirst())
-            .get();
-
-        return name;
-    }
-
     /**
      * Method to send a {@link Message}.
      *
@@ -545,10 +593,10 @@ public class Message {
     public ObjectNode asObjectNode() {
         var node = new ObjectNode(JsonNodeFactory.instance);
 
-        node.set("header", header);
-        node.set("parentHeader", parentHeader);
-        node.set("metadata", metadata);
-        node.set("content", content);
+        node.set("header", header());
+        node.set("parentHeader", parentHeader());
+        node.set("metadata", metadata());
+        node.set("content", content());
 
         return node;
     }
@@ -568,15 +616,51 @@ public class Message {
         return string;
     }
 
+    @Getter
+    private static class Type {
+        public static final Type NONE = new Type(null);
+
+        private final String action;
+        private final boolean request;
+        private final boolean reply;
+
+        public Type(String msg_type) {
+            var type = (msg_type != null) ? msg_type.toLowerCase() : "";
+            var index = type.lastIndexOf("_");
+
+            action = (msg_type != null) ? ((index != -1) ? type.substring(0, index) : type) : null;
+            request = type.endsWith("_request");
+            reply = type.endsWith("_reply");
+        }
+    }
+
     private static class Copy extends Message {
         public Copy(Message message) {
             super(null);
 
             envelope().addAll(message.envelope());
             header().setAll(message.header());
-            parentHeader().setAll(message.parentHeader());
-            metadata().setAll(message.metadata());
-            content().setAll(message.content());
+            /*
+             * Unparsed frames are shared rather than parsed and copied.
+             */
+            if (message.parentHeaderFrame != null) {
+                parentHeaderFrame = message.parentHeaderFrame;
+            } else {
+                parentHeader().setAll(message.parentHeader());
+            }
+
+            if (message.metadataFrame != null) {
+                metadataFrame = message.metadataFrame;
+            } else {
+                metadata().setAll(message.metadata());
+            }
+
+            if (message.contentFrame != null) {
+                contentFrame = message.contentFrame;
+            } else {
+                content().setAll(message.content());
+            }
+
             buffers().addAll(message.buffers());
         }
     }
@@ -602,7 +686,6 @@ public class Message {
             if (request.isRequest()) {
                 envelope().addAll(request.envelope());
                 content().setAll(content(null, null));
-                buffers().addAll(request.buffers());
             } else {
                 throw new IllegalStateException("Source message is not a request");
             }
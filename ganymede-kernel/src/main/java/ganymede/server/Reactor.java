@@ -0,0 +1,197 @@
+package ganymede.server;
+/*-
+ * ##########################################################################
+ * Ganymede
+ * %%
+ * Copyright (C) 2024 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.ToString;
+import lombok.extern.log4j.Log4j2;
+import org.zeromq.ZMQ;
+
+/**
+ * {@link Server} {@link ZMQ} {@link Reactor}.  A single thread creates,
+ * binds, and polls every {@link Dispatcher}'s {@link ZMQ.Socket} together
+ * with a wake-up {@link Pipe} that is signalled whenever a {@link Message}
+ * is queued for sending from another thread.  The thread blocks in
+ * {@link ZMQ.Poller#poll(long)} until a {@link ZMQ.Socket} is readable, a
+ * {@link Message} is queued, or an {@link Channel.IOPub IOPub} flush
+ * window expires.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+@ToString(onlyExplicitlyIncluded = true) @Log4j2
+public class Reactor implements Runnable {
+    private static final byte[] SIGNAL = new byte[] { 0 };
+
+    private final Server server;
+    private final Queue<Dispatcher> pending = new ConcurrentLinkedQueue<>();
+    private final List<Dispatcher> dispatchers = new ArrayList<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean signalled = new AtomicBoolean(false);
+    private final Pipe pipe;
+    private volatile Thread thread = null;
+
+    /**
+     * Sole constructor.
+     *
+     * @param   server          The {@link Server}.
+     */
+    public Reactor(Server server) {
+        this.server = server;
+
+        try {
+            pipe = Pipe.open();
+            pipe.source().configureBlocking(false);
+            pipe.sink().configureBlocking(false);
+        } catch (IOException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    /**
+     * Method to register a {@link Dispatcher}.  The {@link Dispatcher}'s
+     * {@link ZMQ.Socket} is created and bound on the {@link Reactor}
+     * thread (which is started on the first call).
+     *
+     * @param   dispatcher      The {@link Dispatcher}.
+     */
+    public void register(Dispatcher dispatcher) {
+        pending.add(dispatcher);
+
+        if (started.compareAndSet(false, true)) {
+            server.submit(this);
+        }
+
+        wakeup();
+    }
+
+    /**
+     * Method to wake up the {@link Reactor} thread.  Wake-ups requested
+     * before the thread has run are coalesced.
+     */
+    public void wakeup() {
+        if (signalled.compareAndSet(false, true)) {
+            try {
+                pipe.sink().write(ByteBuffer.wrap(SIGNAL));
+            } catch (IOException exception) {
+                log.debug("{}", exception);
+            }
+        }
+    }
+
+    /**
+     * Method to determine if the current {@link Thread} is the
+     * {@link Reactor} thread.
+     *
+     * @return  {@code true} if the current {@link Thread} owns the
+     *          {@link ZMQ.Socket}s; {@code false} otherwise.
+     */
+    public boolean isReactorThread() { return Thread.currentThread() == thread; }
+
+    @Override
+    public void run() {
+        var context = server.getContext();
+        var buffer = ByteBuffer.allocate(64);
+
+        thread = Thread.currentThread();
+
+        try (var poller = context.poller(8)) {
+            poller.register(pipe.source(), ZMQ.Poller.POLLIN);
+
+            while (! server.isShutdown()) {
+                for (var dispatcher = pending.poll(); dispatcher != null; dispatcher = pending.poll()) {
+                    try {
+                        poller.register(dispatcher.open(context), ZMQ.Poller.POLLIN);
+                        dispatchers.add(dispatcher);
+                    } catch (Exception exception) {
+                        log.warn("{}: {}", dispatcher.getAddress(), exception);
+                    }
+                }
+
+                var timeout = -1L;
+
+                for (var dispatcher : dispatchers) {
+                    try {
+                        var next = dispatcher.flush();
+
+                        if (next >= 0) {
+                            timeout = (timeout >= 0) ? Math.min(timeout, next) : next;
+                        }
+                    } catch (Exception exception) {
+                        log.warn("{}: {}", dispatcher.getAddress(), exception);
+                    }
+                }
+
+                try {
+                    poller.poll(timeout);
+
+                    if (poller.pollin(0)) {
+                        while (pipe.source().read(buffer.clear()) > 0) {
+                            continue;
+                        }
+                        /*
+                         * Cleared only after the pipe is drained: a wake-up
+                         * coalesced into the drained signal is still covered
+                         * by the flush at the top of the loop.
+                         */
+                        signalled.set(false);
+                    }
+                } catch (Exception exception) {
+                    log.warn("{}", exception);
+                    continue;
+                }
+
+                for (int i = 0, n = dispatchers.size(); i < n; i += 1) {
+                    if (poller.pollin(i + 1)) {
+                        var dispatcher = dispatchers.get(i);
+
+                        try {
+                            dispatcher.receive();
+                        } catch (Exception exception) {
+                            log.warn("{}: {}", dispatcher.getAddress(), exception);
+                        }
+                    }
+                }
+            }
+        } catch (Exception exception) {
+            log.warn("{}", exception);
+        } finally {
+            /*
+             * Send anything queued before shutdown (e.g., the
+             * shutdown_reply) before the sockets are closed.
+             */
+            for (var dispatcher : dispatchers) {
+                try {
+                    dispatcher.flush(true);
+                } catch (Exception exception) {
+                    log.warn("{}: {}", dispatcher.getAddress(), exception);
+                }
+            }
+
+            dispatchers.forEach(Dispatcher::close);
+            dispatchers.clear();
+        }
+    }
+}
@@ -27,8 +27,16 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
 import lombok.Setter;
@@ -37,6 +45,7 @@ import lombok.extern.log4j.Log4j2;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.zeromq.ZMQ;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PROTECTED;
 
@@ -56,7 +65,13 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
      */
     protected static final ComparableVersion PROTOCOL_VERSION = new ComparableVersion("5.3");
 
-    private final ZMQ.Context context = ZMQ.context(1);
+    @Getter(NONE) @Setter(NONE)
+    private ZMQ.Context context = null;
+    private final Reactor reactor = new Reactor(this);
+    private int ioThreads = 1;
+    private int sndHWM = 1000;
+    private int rcvHWM = 1000;
+    private int linger = -1;
     private final Channel.Heartbeat heartbeat = new Channel.Heartbeat(this);
     private final Channel.Control control = new Control();
     private final Channel.IOPub iopub = new Channel.IOPub(this);
@@ -68,10 +83,20 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
     private PrintStreamBuffer err = null;
     private UUID kernelId = null;
     private UUID kernelSessionId = null;
+    private boolean streaming = true;
+    private long streamInterval = 100;
+    private int streamThreshold = 64 * 1024;
+    private long streamLimit = 64 * 1024 * 1024;
     @Getter(NONE) @Setter(NONE)
     protected final AtomicInteger execution_count = new AtomicInteger(0);
     @Getter(NONE) @Setter(NONE)
-    protected transient Message request = null;
+    protected transient volatile Message request = null;
+    @Getter(NONE) @Setter(NONE)
+    private final Lane lane = new Lane();
+    @Getter(NONE) @Setter(NONE)
+    private final Lane analysis = new Lane();
+    @Getter(NONE) @Setter(NONE)
+    private final Map<String,Message> latest = new ConcurrentHashMap<>();
 
     /**
      * Sole constructor.
@@ -86,6 +111,26 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
         }
     }
 
+    /**
+     * Method to get the {@link ZMQ.Context}.  The {@link ZMQ.Context} is
+     * created (with {@link #getIoThreads()} I/O threads) on first call.
+     *
+     * @return  The {@link ZMQ.Context}.
+     */
+    public synchronized ZMQ.Context getContext() {
+        if (context == null) {
+            context = ZMQ.context(ioThreads);
+        }
+
+        return context;
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        reactor.wakeup();
+    }
+
     /**
      * Add a connection specified by a {@link Connection} {@link File}.
      *
@@ -130,8 +175,8 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
      */
     protected void restart() throws Exception {
         in = new ByteArrayInputStream(new byte[] { });
-        out = new PrintStreamBuffer();
-        err = new PrintStreamBuffer();
+        out = new PrintStreamBuffer(streamLimit);
+        err = new PrintStreamBuffer(streamLimit);
     }
 
     /**
@@ -168,6 +213,30 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
      */
     protected abstract Magic.completeness isComplete(String code) throws Exception;
 
+    /**
+     * Method to determine code completions.
+     *
+     * @param   code            The cell code.
+     * @param   cursor          The cursor position ({@link String}
+     *                          index).
+     *
+     * @return  The {@code complete_reply} content.  {@code cursor_start}
+     *          and {@code cursor_end} are {@link String} indices.
+     */
+    protected abstract ObjectNode complete(String code, int cursor) throws Exception;
+
+    /**
+     * Method to inspect code.
+     *
+     * @param   code            The cell code.
+     * @param   cursor          The cursor position ({@link String}
+     *                          index).
+     * @param   detail_level    The detail level ({@code 0} or {@code 1}).
+     *
+     * @return  The {@code inspect_reply} content.
+     */
+    protected abstract ObjectNode inspect(String code, int cursor, int detail_level) throws Exception;
+
     /**
      * Method to interrupt a kernel.
      */
@@ -202,14 +271,64 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
         return message.timestamp();
     }
 
+    /*
+     * Executes tasks one at a time, in submission order, on the Server's
+     * threads.  See Executor.
+     */
+    @ToString
+    private class Lane implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private Runnable active = null;
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.add(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        next();
+                    }
+                });
+
+            if (active == null) {
+                next();
+            }
+        }
+
+        private synchronized void next() {
+            active = tasks.poll();
+
+            if (active != null) {
+                Server.this.execute(active);
+            }
+        }
+    }
+
     @ToString
     private class Control extends Channel.Control {
         public Control() { super(Server.this); }
 
+        /*
+         * shutdown_requests (which may restart the kernel) are handled off
+         * the Reactor thread so the Heartbeat is not blocked.  A
+         * non-restart shutdown is started only after the shutdown_reply is
+         * queued; the Reactor flushes its queues before closing the
+         * sockets.
+         */
         @Override
         protected void dispatch(Dispatcher dispatcher, ZMQ.Socket socket, Message message) {
             if (message.isRequest()) {
-                super.dispatch(dispatcher, socket, message);
+                if (Objects.equals(message.getMessageTypeAction(), "shutdown")) {
+                    Server.this.execute(() -> {
+                            super.dispatch(dispatcher, socket, message);
+
+                            if (! message.content().at("/restart").asBoolean()) {
+                                Server.this.shutdown();
+                            }
+                        });
+                } else {
+                    super.dispatch(dispatcher, socket, message);
+                }
             } else {
                 log.warn("Ignoring non-request {}", message.msg_type());
             }
@@ -222,8 +341,6 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
 
             if (restart) {
                 Server.this.restart();
-            } else {
-                Server.this.shutdown();
             }
         }
 
@@ -256,21 +373,69 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
             super(Server.this, Server.this.iopub, Server.this.stdin);
         }
 
+        /*
+         * execute_requests are run in order on the execution lane and
+         * complete_, inspect_, and is_complete_requests on the analysis
+         * lane (the replies are sent by the Reactor thread); all other
+         * requests are answered immediately on the Reactor thread.
+         */
         @Override
         protected void dispatch(Dispatcher dispatcher, ZMQ.Socket socket, Message message) {
             if (message.isRequest()) {
-                try {
-                    Server.this.request = message;
-
-                    super.dispatch(dispatcher, socket, Server.this.request);
-                } finally {
-                    Server.this.request = null;
+                var action = Objects.requireNonNullElse(message.getMessageTypeAction(), "");
+
+                switch (action) {
+                case "execute":
+                    lane.execute(() -> {
+                            try {
+                                Server.this.request = message;
+
+                                super.dispatch(dispatcher, socket, message);
+                            } finally {
+                                Server.this.request = null;
+                            }
+                        });
+                    break;
+
+                case "complete":
+                case "inspect":
+                    latest.put(action, message);
+                    analysis.execute(() -> super.dispatch(dispatcher, socket, message));
+                    break;
+
+                case "is_complete":
+                    analysis.execute(() -> super.dispatch(dispatcher, socket, message));
+                    break;
+
+                default:
+                    super.dispatch(dispatcher, socket, message);
+                    break;
                 }
             } else {
                 log.warn("Ignoring non-request {}", message.msg_type());
             }
         }
 
+        /*
+         * Analysis-lane requests may be handled while a cell is executing:
+         * their "idle" status would tell the frontend the kernel is idle
+         * while the cell is still running.
+         */
+        @Override
+        protected boolean isStatusPublished(Message message) {
+            var action = Objects.requireNonNullElse(message.getMessageTypeAction(), "");
+
+            switch (action) {
+            case "complete":
+            case "inspect":
+            case "is_complete":
+                return false;
+
+            default:
+                return true;
+            }
+        }
+
         private void kernel_info(Dispatcher dispatcher, Message request, Message reply) throws Exception {
             reply.content().setAll(getKernelInfo());
         }
@@ -282,6 +447,10 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
             var user_expressions = request.content().at("/user_expressions");
             var allow_stdin = request.content().at("/allow_stdin").asBoolean();
             var stop_on_error = request.content().at("/stop_on_error").asBoolean();
+            var stdout = Server.this.out;
+            var stderr = Server.this.err;
+            var streaming = new AtomicBoolean(false);
+            ScheduledFuture<?> flusher = null;
 
             try {
                 if (! code.isEmpty()) {
@@ -301,11 +470,49 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
                      *   "cellId" : "4cf407d2"
                      * }
                      */
+                    if (isStreaming() && (! silent)) {
+                        var pending = new AtomicBoolean(false);
+                        Runnable flush = () -> {
+                            pending.set(false);
+                            flush(streaming, request, stdout, stderr);
+                        };
+                        /*
+                         * At most one threshold flush is queued at a time:
+                         * writes past the threshold before it runs are
+                         * covered by it.
+                         */
+                        Runnable listener = () -> {
+                            if (pending.compareAndSet(false, true)) {
+                                Server.this.submit(flush);
+                            }
+                        };
+
+                        streaming.set(true);
+                        stdout.setListener(streamThreshold, listener);
+                        stderr.setListener(streamThreshold, listener);
+
+                        flusher =
+                            scheduleWithFixedDelay(flush,
+                                                   streamInterval, streamInterval,
+                                                   MILLISECONDS);
+                    }
+
                     Server.this.execute(code);
                 }
             } catch (Throwable throwable) {
                 reply.status(throwable, code);
             } finally {
+                if (flusher != null) {
+                    flusher.cancel(false);
+                }
+
+                stdout.setListener(Integer.MAX_VALUE, null);
+                stderr.setListener(Integer.MAX_VALUE, null);
+
+                synchronized (this) {
+                    streaming.set(false);
+                }
+
                 reply.content().put("execution_count", execution_count.intValue());
 
                 if (reply.content().get("status").asText().equals("ok")) {
@@ -328,21 +535,49 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
                     }
                 }
 
-                var stdout = out.toString();
-                var stderr = err.toString();
+                if (! silent) {
+                    flush(request, stdout, stderr);
 
-                out.reset();
-                err.reset();
+                    var truncated = stdout.getTruncated() + stderr.getTruncated();
 
-                if (! silent) {
-                    if (! stdout.isEmpty()) {
-                        iopub.pub(request.stream(Message.stream.stdout, stdout));
-                    }
+                    if (truncated > 0) {
+                        var text =
+                            String.format("\n... output truncated (%d bytes discarded) ...\n",
+                                          truncated);
 
-                    if (! stderr.isEmpty()) {
-                        iopub.pub(request.stream(Message.stream.stderr, stderr));
+                        iopub.pub(request.stream(Message.stream.stderr, text));
                     }
                 }
+
+                stdout.reset();
+                stderr.reset();
+            }
+        }
+
+        /*
+         * Streaming flush.  Called from the scheduled flusher and threshold
+         * listeners; a no-op once the execution has completed.
+         */
+        private synchronized void flush(AtomicBoolean streaming, Message request, PrintStreamBuffer out, PrintStreamBuffer err) {
+            if (streaming.get()) {
+                flush(request, out, err);
+            }
+        }
+
+        /*
+         * Publishes any accumulated output as stream messages.
+         * Synchronized to preserve ordering.
+         */
+        private synchronized void flush(Message request, PrintStreamBuffer out, PrintStreamBuffer err) {
+            var stdout = out.drain();
+            var stderr = err.drain();
+
+            if (! stdout.isEmpty()) {
+                iopub.pub(request.stream(Message.stream.stdout, stdout));
+            }
+
+            if (! stderr.isEmpty()) {
+                iopub.pub(request.stream(Message.stream.stderr, stderr));
             }
         }
 
@@ -351,14 +586,52 @@ public abstract class Server extends ScheduledThreadPoolExecutor {
             var cursor_pos = request.content().at("/cursor_pos").asInt();
             var detail_level = request.content().at("/detail_level").asInt();
 
-            throw new UnsupportedOperationException();
+            if (isLatest(request)) {
+                reply.content().setAll(Server.this.inspect(code, toIndex(code, cursor_pos), detail_level));
+            } else {
+                reply.content().put("found", false);
+                reply.content().with("data");
+                reply.content().with("metadata");
+            }
         }
 
         private void complete(Dispatcher dispatcher, Message request, Message reply) throws Exception {
             var code = request.content().at("/code").asText();
             var cursor_pos = request.content().at("/cursor_pos").asInt();
 
-            throw new UnsupportedOperationException();
+            if (isLatest(request)) {
+                var content = Server.this.complete(code, toIndex(code, cursor_pos));
+
+                reply.content().setAll(content);
+                reply.content().put("cursor_start", toCodePoint(code, content.at("/cursor_start").asInt()));
+                reply.content().put("cursor_end", toCodePoint(code, content.at("/cursor_end").asInt()));
+            } else {
+                reply.content().withArray("matches");
+                reply.content().put("cursor_start", cursor_pos);
+                reply.content().put("cursor_end", cursor_pos);
+                reply.content().with("metadata");
+            }
+        }
+
+        /*
+         * Superseded (queued behind a newer request of the same type)
+         * requests are answered with an empty reply.
+         */
+        private boolean isLatest(Message request) {
+            return latest.get(request.getMessageTypeAction()) == request;
+        }
+
+        /*
+         * Jupyter cursor positions are in Unicode code points.
+         */
+        private int toIndex(String code, int cursor_pos) {
+            var count = code.codePointCount(0, code.length());
+
+            return code.offsetByCodePoints(0, Math.max(0, Math.min(cursor_pos, count)));
+        }
+
+        private int toCodePoint(String code, int index) {
+            return code.codePointCount(0, Math.max(0, Math.min(index, code.length())));
         }
 
         private void history(Dispatcher dispatcher, Message request, Message reply) throws Exception {
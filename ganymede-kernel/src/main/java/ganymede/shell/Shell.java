@@ -19,9 +19,12 @@ package ganymede.shell;
  * ##########################################################################
  */
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import ganymede.dependency.POM;
 import ganymede.dependency.Resolver;
 import ganymede.kernel.Kernel;
+import ganymede.kernel.client.Bridge;
 import ganymede.notebook.Description;
 import ganymede.notebook.Magic;
 import ganymede.notebook.MagicMap;
@@ -29,12 +32,16 @@ import ganymede.notebook.MagicNames;
 import ganymede.notebook.NotebookContext;
 import ganymede.server.Message;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -42,19 +49,33 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import jdk.jshell.JShell;
 import jdk.jshell.SourceCodeAnalysis;
+import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.Synchronized;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 import org.apache.logging.log4j.io.IoBuilder;
+import org.eclipse.aether.artifact.Artifact;
 
 import static ganymede.kernel.client.KernelRestClient.PORT_PROPERTY;
 import static ganymede.notebook.NotebookContext.unescape;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static jdk.jshell.Snippet.Status.REJECTED;
+import static lombok.AccessLevel.NONE;
 import static org.apache.logging.log4j.Level.WARN;
 
 /**
@@ -71,6 +92,8 @@ public class Shell implements AutoCloseable {
                   "-Dio.netty.tryReflectionSetAccessible=true",
                   "-Djava.awt.headless=true")
         .toArray(String[]::new);
+    private static final String AUTO_CREATE_SHARED_ARCHIVE = "-XX:+AutoCreateSharedArchive";
+    private static final String SHARED_ARCHIVE_FILE = "-XX:SharedArchiveFile=";
 
     private final Kernel kernel;
     private Locale locale = null;       /* TBD: Query Notebook server */
@@ -78,10 +101,16 @@ public class Shell implements AutoCloseable {
     private final Java java = new Java();
     private final BuiltinMap builtins = new BuiltinMap();
     private final Resolver resolver = new Resolver();
-    private JShell jshell = null;
+    private volatile JShell jshell = null;
+    private boolean standby = false;
+    private Future<Instance> next = null;
+    private volatile CompletableFuture<Void> known = CompletableFuture.completedFuture(null);
     private InputStream in = null;
     private PrintStream out = null;
     private PrintStream err = null;
+    private final AtomicLong executions = new AtomicLong(0);
+    private final Map<String,Completion> completions = new LRUMap<>(256);
+    private long completionsGeneration = -1;
 
     /**
      * Sole constructor.
@@ -116,7 +145,7 @@ public class Shell implements AutoCloseable {
     @Synchronized
     public void restart(InputStream in, PrintStream out, PrintStream err) {
         /* stop(); */
-        close();
+        terminate();
 
         if (! kernel().isTerminating()) {
             start(in, out, err);
@@ -124,16 +153,24 @@ public class Shell implements AutoCloseable {
     }
 
     /**
-     * Method to close (terminate) a {@link Shell}.
+     * Method to close (terminate) a {@link Shell}.  Any standby
+     * {@link JShell} instance is closed, too.
      */
     @Override
     @Synchronized
     public void close() {
+        terminate();
+        discard();
+    }
+
+    private void terminate() {
         try (var jshell = this.jshell) {
             this.jshell = null;
+            java.last = null;
 
             if (jshell != null) {
                 restarts.incrementAndGet();
+                executions.incrementAndGet();
             }
         }
     }
@@ -192,30 +229,47 @@ public class Shell implements AutoCloseable {
     /**
      * Method to add known dependencies found within a parent directory to
      * the {@link Resolver#classpath()}.  See
-     * {@link Resolver#addKnownDependenciesToClasspath(File)}.
+     * {@link Resolver#addKnownDependenciesToClasspath(File)}.  The
+     * directory is scanned asynchronously (see
+     * {@link Resolver#getKnownDependencies(File)}) and the result added
+     * to the classpath (and any running {@link JShell}) under the
+     * {@link Shell} lock.  {@link #execute(String)} waits for any pending
+     * scans to complete.
      *
      * @param   parent          The parent {@link File} to analyze.
      */
     @Synchronized
     public void addKnownDependenciesToClasspath(File parent) {
-        for (var file : resolver.addKnownDependenciesToClasspath(parent)) {
-            var jshell = this.jshell;
+        var future =
+            CompletableFuture.supplyAsync(() -> resolver.getKnownDependencies(parent), kernel)
+            .thenAccept(this::addKnownDependenciesToClasspath);
 
-            if (jshell != null) {
-                jshell.addToClasspath(file.toString());
-            } else {
-                break;
+        known = CompletableFuture.allOf(known, future);
+    }
+
+    @Synchronized
+    private void addKnownDependenciesToClasspath(List<Artifact[]> list) {
+        for (var artifacts : list) {
+            for (var file : resolver.addToClasspath(artifacts)) {
+                var jshell = this.jshell;
+
+                if (jshell != null) {
+                    jshell.addToClasspath(file.toString());
+                }
             }
         }
     }
 
     /**
-     * Method to get the current classpath.  See
-     * {@link Resolver#classpath()}.
+     * Method to get a snapshot of the current classpath.  See
+     * {@link Resolver#classpath()}.  The copy is taken under the
+     * {@link Shell} lock because known dependencies are added
+     * asynchronously (see {@link #addKnownDependenciesToClasspath(File)}).
      *
      * @return  The {@link Set} of {@link File}s.
      */
-    public Set<File> classpath() { return resolver.classpath(); }
+    @Synchronized
+    public Set<File> classpath() { return new LinkedHashSet<>(resolver.classpath()); }
 
     /**
      * Method to get the current imports.
@@ -253,66 +307,226 @@ public class Shell implements AutoCloseable {
 
     /**
      * Accessor to the {@link JShell} instance (created and initialized on
-     * first call).
+     * first call).  If a standby instance has been prepared (see
+     * {@link #setStandby(boolean)}) it is swapped in and a new standby
+     * instance is started in the background.
      *
      * @return  The {@link JShell} instance.
      */
-    @Synchronized
     public JShell jshell() {
+        var jshell = this.jshell;
+
         if (jshell == null) {
-            var options = new ArrayList<String>();
-            var definitions =
-                Stream.of(ProcessHandle.current().info().arguments())
-                .flatMap(Optional::stream)
-                .flatMap(Stream::of)
-                .takeWhile(t -> (! Objects.equals(t, "-jar")))
-                .filter(t -> t.startsWith("-D"))
-                .toArray(String[]::new);
-
-            Collections.addAll(options, definitions);
-            Collections.addAll(options, VMOPTIONS);
-            options.add("-D" + Map.entry(PORT_PROPERTY, kernel.getPort()));
-
-            if (! kernel.isTerminating()) {
+            /*
+             * The standby instance is awaited without holding the lock so
+             * close() and setStandby(boolean) are not blocked behind it.
+             */
+            var instance = (Instance) null;
+            var next = take();
+
+            if (next != null) {
                 try {
-                    jshell =
-                        JShell.builder()
-                        .remoteVMOptions(options.toArray(new String[] { }))
-                        .in(in).out(out).err(err).build();
-
-                    resolver().classpath()
-                        .forEach(t -> jshell.addToClasspath(t.toString()));
-
-                    var logIn =
-                        IoBuilder.forLogger(log)
-                        .setLevel(WARN)
-                        .filter(InputStream.nullInputStream())
-                        .buildInputStream();
-                    var logOut =
-                        IoBuilder.forLogger(log)
-                        .setLevel(WARN)
-                        .buildPrintStream();
-
-                    java.execute(jshell, logIn, logOut, logOut, NotebookContext.bootstrap());
+                    instance = next.get();
                 } catch (Exception exception) {
                     log.warn("{}", exception, exception);
                 }
             }
+
+            jshell = install(instance);
+        }
+
+        return jshell;
+    }
+
+    @Synchronized
+    private Future<Instance> take() {
+        var next = this.next;
+
+        this.next = null;
+
+        return next;
+    }
+
+    @Synchronized
+    private JShell install(Instance instance) {
+        if (jshell != null || kernel.isTerminating()) {
+            if (instance != null) {
+                instance.getJshell().close();
+            }
+        } else {
+            if (instance == null) {
+                instance = newInstance(new LinkedHashSet<>(resolver().classpath()), false);
+            }
+
+            if (instance != null) {
+                var jshell = instance.getJshell();
+                var classpath = instance.getClasspath();
+
+                resolver().classpath().stream()
+                    .filter(t -> (! classpath.contains(t)))
+                    .forEach(t -> jshell.addToClasspath(t.toString()));
+
+                instance.getRedirect().set(in, out, err);
+
+                this.jshell = jshell;
+            }
+
+            prepare();
         }
 
         return jshell;
     }
 
+    /**
+     * Method to enable or disable the standby {@link JShell} instance.
+     * When enabled, a fully bootstrapped {@link JShell} instance is kept
+     * warm in the background so the first cell after a restart does not
+     * pay VM start-up and bootstrap costs.
+     *
+     * @param   standby         {@code true} to keep a standby instance;
+     *                          {@code false} otherwise.
+     */
+    @Synchronized
+    public void setStandby(boolean standby) {
+        this.standby = standby;
+
+        if (standby) {
+            prepare();
+        } else {
+            discard();
+        }
+    }
+
+    private void discard() {
+        var next = this.next;
+
+        this.next = null;
+
+        if (next != null) {
+            try {
+                kernel.submit(() -> {
+                        try {
+                            next.get().getJshell().close();
+                        } catch (Exception exception) {
+                            log.debug("{}", exception);
+                        }
+                    });
+            } catch (RejectedExecutionException exception) {
+                next.cancel(true);
+            }
+        }
+    }
+
+    private void prepare() {
+        if (standby && next == null && kernel.getPort() > 0 && (! kernel.isTerminating())) {
+            var classpath = new LinkedHashSet<>(resolver().classpath());
+
+            try {
+                next = kernel.submit(() -> newInstance(classpath, true));
+            } catch (RejectedExecutionException exception) {
+            }
+        }
+    }
+
+    private Instance newInstance(Set<File> classpath, boolean standby) {
+        var instance = (Instance) null;
+        var options = new ArrayList<String>();
+        var arguments =
+            Stream.of(ProcessHandle.current().info().arguments())
+            .flatMap(Optional::stream)
+            .flatMap(Stream::of)
+            .takeWhile(t -> (! Objects.equals(t, "-jar")))
+            .collect(toList());
+        var definitions =
+            arguments.stream()
+            .filter(t -> t.startsWith("-D"))
+            .toArray(String[]::new);
+
+        Collections.addAll(options, definitions);
+        Collections.addAll(options, VMOPTIONS);
+        /*
+         * If the kernel was installed with a Class Data Sharing archive,
+         * create and use a companion archive for the JShell remote VM.
+         * A standby VM runs alongside the active one so it only maps an
+         * existing archive: it never (re)creates it.
+         */
+        if (arguments.contains(AUTO_CREATE_SHARED_ARCHIVE)) {
+            var archive =
+                arguments.stream()
+                .filter(t -> t.startsWith(SHARED_ARCHIVE_FILE))
+                .map(t -> t.replaceAll("[.]jsa$", "") + "-jshell.jsa")
+                .findFirst().orElse(null);
+
+            if (archive != null) {
+                if (! standby) {
+                    Collections.addAll(options, AUTO_CREATE_SHARED_ARCHIVE, archive);
+                } else if (new File(archive.substring(SHARED_ARCHIVE_FILE.length())).isFile()) {
+                    options.add(archive);
+                }
+            }
+        }
+
+        options.add("-D" + Map.entry(PORT_PROPERTY, kernel.getPort()));
+
+        var bridge = kernel.getBridge();
+
+        if (bridge != null) {
+            options.add("-D" + Map.entry(Bridge.PORT_PROPERTY, bridge.getPort()));
+            options.add("-D" + Map.entry(Bridge.TOKEN_PROPERTY, bridge.getToken()));
+        }
+
+        if (! kernel.isTerminating()) {
+            try {
+                var logIn =
+                    IoBuilder.forLogger(log)
+                    .setLevel(WARN)
+                    .filter(InputStream.nullInputStream())
+                    .buildInputStream();
+                var logOut =
+                    IoBuilder.forLogger(log)
+                    .setLevel(WARN)
+                    .buildPrintStream();
+                var redirect = new Redirect(logIn, logOut, logOut);
+                var jshell =
+                    JShell.builder()
+                    .remoteVMOptions(options.toArray(new String[] { }))
+                    .in(redirect.getIn()).out(redirect.getOut()).err(redirect.getErr()).build();
+
+                classpath.forEach(t -> jshell.addToClasspath(t.toString()));
+
+                var start = System.nanoTime();
+
+                java.execute(jshell, logIn, logOut, logOut, NotebookContext.bootstrap());
+
+                log.info("Bootstrapped {} in {} ms",
+                         NotebookContext.class.getSimpleName(),
+                         NANOSECONDS.toMillis(System.nanoTime() - start));
+
+                instance = new Instance(jshell, redirect, classpath);
+            } catch (Exception exception) {
+                log.warn("{}", exception, exception);
+            }
+        }
+
+        return instance;
+    }
+
     /**
      * Method to execute code (typically a cell's contents).
      *
      * @param   code            The code to execute.
      */
     public void execute(String code) {
+        try {
+            known.join();
+        } catch (Exception exception) {
+            log.warn("{}", exception);
+        }
+
         var jshell = jshell();
 
         try {
-            NotebookContext.preExecute(jshell);
+            NotebookContext.preExecute(jshell, resolver.generation());
 
             var application = new Magic.Application(code);
             var name = application.getMagicName();
@@ -327,6 +541,7 @@ public class Shell implements AutoCloseable {
             exception.printStackTrace(err);
         } finally {
             NotebookContext.postExecute(jshell);
+            executions.incrementAndGet();
         }
     }
 
@@ -380,9 +595,134 @@ public class Shell implements AutoCloseable {
     }
 
     /**
-     * Method to stop (interrupt) a {@link Shell}.
+     * Method to determine code completions.  Completions are computed with
+     * the {@link JShell}'s {@link SourceCodeAnalysis} (without acquiring
+     * the {@link Shell} lock) and cached by the code preceding the cursor
+     * until the next execution.  Only Java code is analyzed.
+     *
+     * @param   code            The cell code.
+     * @param   cursor          The cursor position ({@link String}
+     *                          index).
+     *
+     * @return  The {@code complete_reply} content ({@code cursor_start}
+     *          and {@code cursor_end} are {@link String} indices).
+     */
+    public ObjectNode complete(String code, int cursor) {
+        var content = JsonNodeFactory.instance.objectNode();
+        var matches = content.putArray("matches");
+        var start = cursor;
+        var offset = getJavaOffset(code);
+        var jshell = this.jshell;
+
+        if (jshell != null && offset >= 0 && cursor >= offset) {
+            var prefix = code.substring(offset, cursor);
+            var completion = getCompletion(jshell, prefix);
+
+            completion.getMatches().forEach(matches::add);
+            start = offset + completion.getAnchor();
+        }
+
+        content.put("cursor_start", start);
+        content.put("cursor_end", cursor);
+        content.putObject("metadata");
+        content.put("status", "ok");
+
+        return content;
+    }
+
+    private Completion getCompletion(JShell jshell, String prefix) {
+        synchronized (completions) {
+            var generation = executions.get();
+
+            if (completionsGeneration != generation) {
+                completions.clear();
+                completionsGeneration = generation;
+            }
+
+            var completion = completions.get(prefix);
+
+            if (completion != null) {
+                return completion;
+            }
+        }
+
+        var anchor = new int[] { prefix.length() };
+        var list =
+            jshell.sourceCodeAnalysis()
+            .completionSuggestions(prefix, prefix.length(), anchor);
+        var matches =
+            Stream.concat(list.stream().filter(t -> t.matchesType()),
+                          list.stream().filter(t -> (! t.matchesType())))
+            .map(SourceCodeAnalysis.Suggestion::continuation)
+            .distinct()
+            .collect(toList());
+        var completion = new Completion(anchor[0], matches);
+
+        synchronized (completions) {
+            completions.put(prefix, completion);
+        }
+
+        return completion;
+    }
+
+    /**
+     * Method to inspect code.  The documentation is computed with the
+     * {@link JShell}'s {@link SourceCodeAnalysis} (without acquiring the
+     * {@link Shell} lock).  Only Java code is analyzed.
+     *
+     * @param   code            The cell code.
+     * @param   cursor          The cursor position ({@link String}
+     *                          index).
+     * @param   detail_level    The detail level ({@code 0} or {@code 1}).
+     *
+     * @return  The {@code inspect_reply} content.
+     */
+    public ObjectNode inspect(String code, int cursor, int detail_level) {
+        var content = JsonNodeFactory.instance.objectNode();
+        var data = content.putObject("data");
+        var offset = getJavaOffset(code);
+        var jshell = this.jshell;
+
+        if (jshell != null && offset >= 0 && cursor >= offset) {
+            var text =
+                jshell.sourceCodeAnalysis()
+                .documentation(code.substring(offset), cursor - offset, detail_level > 0)
+                .stream()
+                .map(t -> t.javadoc() != null ? t.signature() + "\n\n" + t.javadoc() : t.signature())
+                .distinct()
+                .collect(joining("\n\n"));
+
+            if (! text.isBlank()) {
+                data.put("text/plain", text);
+            }
+        }
+
+        content.put("found", data.size() > 0);
+        content.putObject("metadata");
+        content.put("status", "ok");
+
+        return content;
+    }
+
+    /*
+     * The offset of the Java code in the cell; -1 if the cell is not Java.
+     */
+    private int getJavaOffset(String code) {
+        var offset = -1;
+        var application = new Magic.Application(code);
+        var name = application.getMagicName();
+
+        if (name == null || builtins.get(name) == java) {
+            offset = code.length() - application.getCode().length();
+        }
+
+        return offset;
+    }
+
+    /**
+     * Method to stop (interrupt) a {@link Shell}.  Does not acquire the
+     * {@link Shell} lock so it may be called while code is executing.
      */
-    @Synchronized
     public void stop() {
         var jshell = this.jshell;
 
@@ -403,6 +743,9 @@ public class Shell implements AutoCloseable {
     @Description("Execute code in Java REPL")
     @NoArgsConstructor @ToString
     private class Java extends Builtin {
+        @ToString.Exclude
+        private volatile Parse last = null;
+
         @Override
         public void execute(Shell shell, InputStream in, PrintStream out, PrintStream err, Application application) throws Exception {
             var code = application.getCode();
@@ -441,40 +784,93 @@ public class Shell implements AutoCloseable {
             return completeness;
         }
 
+        /*
+         * Snippet boundaries are cached from the previous parse: leading
+         * COMPLETE snippets that lie entirely within the prefix shared with
+         * the previous code are reused.  The last of those is always
+         * re-analyzed (its completeness may depend on the text that follows
+         * it, e.g., an "else" clause) so analysis resumes at its start.
+         * The cache is replaced (never mutated) so parse() may be called
+         * without holding the Shell lock.  Only parses against the active
+         * JShell instance are cached and the cache is cleared when that
+         * instance is closed (see terminate()).
+         */
         private SortedMap<Integer,SourceCodeAnalysis.CompletionInfo> parse(JShell jshell, String code) throws ParseException {
             var map = new TreeMap<Integer,SourceCodeAnalysis.CompletionInfo>();
-            var analyzer = jshell.sourceCodeAnalysis();
             var offset = 0;
-            var remaining = code;
-
-            while (! remaining.isEmpty()) {
-                var value = analyzer.analyzeCompletion(remaining);
+            var last = this.last;
 
-                switch (value.completeness()) {
-                case DEFINITELY_INCOMPLETE:
-                    throw new IncompleteParseException(offset);
-                    /* break; */
+            if (last != null && last.getJshell() == jshell) {
+                var prefix = mismatch(last.getCode(), code);
 
-                case UNKNOWN:
-                    throw new UnknownParseException(offset);
-                    /* break; */
+                for (var entry : last.getSnippets().entrySet()) {
+                    var value = entry.getValue();
+                    var end = last.getCode().length() - value.remaining().length();
 
-                default:
-                    map.put(offset, value);
+                    if (value.completeness() == SourceCodeAnalysis.Completeness.COMPLETE && end <= prefix) {
+                        map.put(entry.getKey(), value);
+                        offset = end;
+                    } else {
+                        break;
+                    }
+                }
 
-                    offset += value.source().length();
-                    remaining = remaining.substring(value.source().length());
-                    break;
+                if (! map.isEmpty()) {
+                    offset = map.lastKey();
+                    map.remove(offset);
                 }
+            }
+
+            try {
+                var analyzer = jshell.sourceCodeAnalysis();
+                var remaining = (offset > 0) ? code.substring(offset) : code;
+
+                while (! remaining.isBlank()) {
+                    var value = analyzer.analyzeCompletion(remaining);
+
+                    switch (value.completeness()) {
+                    case DEFINITELY_INCOMPLETE:
+                        throw new IncompleteParseException(offset);
+                        /* break; */
+
+                    case UNKNOWN:
+                        throw new UnknownParseException(offset);
+                        /* break; */
 
-                if (remaining.isBlank()) {
-                    break;
+                    default:
+                        map.put(offset, value);
+
+                        var length = remaining.length() - value.remaining().length();
+
+                        offset += length;
+                        remaining = value.remaining();
+
+                        if (length <= 0) {
+                            remaining = "";
+                        }
+                        break;
+                    }
+                }
+            } finally {
+                if (jshell == Shell.this.jshell) {
+                    this.last = new Parse(jshell, code, Collections.unmodifiableSortedMap(new TreeMap<>(map)));
                 }
             }
 
             return map;
         }
 
+        private int mismatch(String left, String right) {
+            var length = Math.min(left.length(), right.length());
+            var index = 0;
+
+            while (index < length && left.charAt(index) == right.charAt(index)) {
+                index += 1;
+            }
+
+            return index;
+        }
+
         @Override
         public void configure(NotebookContext context) {
             throw new IllegalStateException();
@@ -554,6 +950,92 @@ public class Shell implements AutoCloseable {
         }
     }
 
+    @Data
+    private static class Instance {
+        private final JShell jshell;
+        private final Redirect redirect;
+        private final Set<File> classpath;
+    }
+
+    /*
+     * JShell streams are fixed when the instance is built; Redirect lets
+     * a standby instance be built before the streams it will eventually
+     * use exist.
+     */
+    @Getter @ToString
+    private static class Redirect {
+        @Getter(NONE) private volatile InputStream target = null;
+        @Getter(NONE) private volatile PrintStream targetOut = null;
+        @Getter(NONE) private volatile PrintStream targetErr = null;
+        private final InputStream in =
+            new InputStream() {
+                @Override
+                public int read() throws IOException { return target.read(); }
+
+                @Override
+                public int read(byte[] bytes, int off, int len) throws IOException {
+                    return target.read(bytes, off, len);
+                }
+
+                @Override
+                public int available() throws IOException { return target.available(); }
+            };
+        private final PrintStream out = new PrintStream(new Forward(() -> targetOut), true, UTF_8);
+        private final PrintStream err = new PrintStream(new Forward(() -> targetErr), true, UTF_8);
+
+        public Redirect(InputStream in, PrintStream out, PrintStream err) { set(in, out, err); }
+
+        public void set(InputStream in, PrintStream out, PrintStream err) {
+            this.target = Objects.requireNonNullElseGet(in, InputStream::nullInputStream);
+            this.targetOut = Objects.requireNonNullElse(out, System.out);
+            this.targetErr = Objects.requireNonNullElse(err, System.err);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Forward extends OutputStream {
+        private final Supplier<PrintStream> target;
+
+        @Override
+        public void write(int b) { target.get().write(b); }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) { target.get().write(bytes, off, len); }
+
+        @Override
+        public void flush() { target.get().flush(); }
+    }
+
+    @Data
+    private static class Parse {
+        private final JShell jshell;
+        private final String code;
+        private final SortedMap<Integer,SourceCodeAnalysis.CompletionInfo> snippets;
+    }
+
+    @Data
+    private static class Completion {
+        private final int anchor;
+        private final List<String> matches;
+    }
+
+    private static class LRUMap<K,V> extends LinkedHashMap<K,V> {
+        private static final long serialVersionUID = 4386420436624853453L;
+
+        private final int capacity;
+
+        public LRUMap(int capacity) {
+            super(16, 0.75f, true);
+
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K,V> eldest) {
+            return size() > capacity;
+        }
+    }
+
     private class BuiltinMap extends MagicMap {
         private static final long serialVersionUID = 1258050942509042030L;
 
@@ -0,0 +1,202 @@
+package ganymede.server;
+/*-
+ * ##########################################################################
+ * Ganymede
+ * %%
+ * Copyright (C) 2024 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ganymede.notebook.Magic;
+import ganymede.util.ObjectMappers;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zeromq.SocketType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * {@link Dispatcher} {@link Channel.IOPub IOPub} coalescing and
+ * back-pressure tests.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+public class DispatcherTest {
+    @TempDir
+    public Path directory;
+
+    private TestServer server = null;
+    private Connection connection = null;
+
+    @BeforeEach
+    public void before() throws Exception {
+        var node = new ObjectNode(JsonNodeFactory.instance);
+
+        node.put("transport", "tcp");
+        node.put("ip", "127.0.0.1");
+        node.put("signature_scheme", "hmac-sha256");
+        node.put("key", UUID.randomUUID().toString());
+
+        var file = new File(directory.toFile(), "kernel-" + UUID.randomUUID() + ".json");
+
+        Files.write(file.toPath(), ObjectMappers.JSON.writeValueAsBytes(node));
+
+        connection = Connection.parse(file);
+        server = new TestServer();
+    }
+
+    @AfterEach
+    public void after() {
+        server.shutdown();
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        var iopub = server.getIopub();
+        var address = "inproc://" + getClass().getSimpleName() + "-" + UUID.randomUUID();
+        /*
+         * Hold stream output long enough that it is only sent when the
+         * (urgent) status Message is queued behind it.
+         */
+        iopub.setFlushWindow(60 * 1000);
+        iopub.connect(connection, address);
+
+        var subscriber = server.getContext().socket(SocketType.SUB);
+
+        try {
+            subscriber.setReceiveTimeOut(100);
+            subscriber.subscribe(new byte[] { });
+            subscriber.connect(address);
+            /*
+             * Wait for the subscription to be established.
+             */
+            var probe = (byte[]) null;
+
+            for (int i = 0; i < 100 && probe == null; i += 1) {
+                iopub.pub(Message.status(Message.status.starting, null));
+                probe = subscriber.recv(0);
+            }
+
+            assertNotNull(probe);
+
+            while (subscriber.recv(0) != null) {
+                continue;
+            }
+
+            var request = Message.status(Message.status.busy, null);
+            var expected = new StringBuilder();
+
+            for (int i = 0; i < 10; i += 1) {
+                var text = "line " + i + "\n";
+
+                iopub.pub(request.stream(Message.stream.stdout, text));
+                expected.append(text);
+            }
+
+            iopub.pub(request.status(Message.status.idle));
+
+            subscriber.setReceiveTimeOut(5000);
+
+            var list = new ArrayList<Message>();
+
+            for (var frame = subscriber.recv(0); frame != null; frame = subscriber.recv(0)) {
+                var message = Message.receive(connection, subscriber, frame);
+
+                list.add(message);
+
+                if (! message.msg_type().equals("stream")) {
+                    break;
+                }
+            }
+
+            assertEquals(2, list.size());
+            assertEquals("stream", list.get(0).msg_type());
+            assertEquals(expected.toString(), list.get(0).content().at("/text").asText());
+            assertEquals("idle", list.get(1).content().at("/execution_state").asText());
+            assertEquals(9, iopub.getCoalesced());
+        } finally {
+            subscriber.close();
+        }
+    }
+
+    @Test
+    public void overflow() {
+        var iopub = server.getIopub();
+        /*
+         * Never registered with the Reactor: nothing drains the queue.
+         */
+        var dispatcher = new Dispatcher(iopub, connection, "inproc://" + UUID.randomUUID());
+        var request = Message.status(Message.status.busy, null);
+
+        iopub.setPublishTimeout(1);
+
+        for (int i = 0; i < Dispatcher.CAPACITY; i += 1) {
+            dispatcher.pub(request.stream(Message.stream.stdout, String.valueOf(i)));
+        }
+
+        assertEquals(Dispatcher.CAPACITY, dispatcher.getQueueDepth());
+        assertEquals(0, dispatcher.getDropped());
+
+        dispatcher.pub(request.stream(Message.stream.stderr, "dropped"));
+
+        assertEquals(Dispatcher.CAPACITY, dispatcher.getQueueDepth());
+        assertEquals(1, dispatcher.getDropped());
+        assertEquals(0, dispatcher.getPublished());
+    }
+
+    private static class TestServer extends Server {
+        public TestServer() {
+            super();
+
+            setKernelSessionId(UUID.randomUUID());
+        }
+
+        @Override
+        protected ObjectNode getKernelInfo() { return new ObjectNode(JsonNodeFactory.instance); }
+
+        @Override
+        protected void execute(String code) throws Exception { }
+
+        @Override
+        protected String evaluate(String expression) throws Exception { return expression; }
+
+        @Override
+        protected Magic.completeness isComplete(String code) throws Exception {
+            return Magic.completeness.complete;
+        }
+
+        @Override
+        protected ObjectNode complete(String code, int cursor) throws Exception {
+            return new ObjectNode(JsonNodeFactory.instance);
+        }
+
+        @Override
+        protected ObjectNode inspect(String code, int cursor, int detail_level) throws Exception {
+            return new ObjectNode(JsonNodeFactory.instance);
+        }
+
+        @Override
+        protected void interrupt() { }
+    }
+}
@@ -0,0 +1,104 @@
+package ganymede.server;
+/*-
+ * ##########################################################################
+ * Ganymede
+ * %%
+ * Copyright (C) 2024 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.zeromq.ZMQ;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link HMACDigester} tests.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+public class HMACDigesterTest {
+    /*
+     * RFC 4231 Test Case 2.
+     */
+    private static final String KEY = "Jefe";
+    private static final String DATA = "what do ya want for nothing?";
+    private static final String DIGEST = "5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843";
+
+    private static byte[] bytes(String string) { return string.getBytes(ZMQ.CHARSET); }
+
+    @Test
+    public void digest() {
+        var digester = new HMACDigester("hmac-sha256", KEY);
+
+        assertEquals(DIGEST, digester.digest(bytes(DATA)));
+        assertEquals(DIGEST, digester.digest(bytes("what do ya "), bytes("want for nothing?")));
+    }
+
+    @Test
+    public void verify() {
+        var digester = new HMACDigester("hmac-sha256", KEY);
+
+        assertTrue(digester.verify(DIGEST, bytes(DATA)));
+        assertTrue(digester.verify(DIGEST.toUpperCase(), bytes(DATA)));
+        assertFalse(digester.verify(DIGEST, bytes(DATA + ".")));
+        assertFalse(digester.verify(DIGEST.substring(1), bytes(DATA)));
+        assertFalse(digester.verify(DIGEST + "00", bytes(DATA)));
+        assertFalse(digester.verify("zz" + DIGEST.substring(2), bytes(DATA)));
+        assertFalse(digester.verify("", bytes(DATA)));
+    }
+
+    @Test
+    public void unsigned() {
+        var digester = new HMACDigester("hmac-sha256", "");
+
+        assertEquals("", digester.digest(bytes(DATA)));
+        assertTrue(digester.verify("", bytes(DATA)));
+        assertFalse(digester.verify(DIGEST, bytes(DATA)));
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        var digester = new HMACDigester("hmac-sha256", KEY);
+        var executor = Executors.newFixedThreadPool(8);
+
+        try {
+            var tasks = new ArrayList<Callable<Boolean>>();
+
+            for (int i = 0; i < 64; i += 1) {
+                tasks.add(() -> {
+                        var verified = true;
+
+                        for (int j = 0; j < 1000; j += 1) {
+                            verified &= DIGEST.equals(digester.digest(bytes(DATA)));
+                            verified &= digester.verify(DIGEST, bytes(DATA));
+                        }
+
+                        return verified;
+                    });
+            }
+
+            for (var future : executor.invokeAll(tasks)) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
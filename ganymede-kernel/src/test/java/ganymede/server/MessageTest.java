@@ -0,0 +1,241 @@
+package ganymede.server;
+/*-
+ * ##########################################################################
+ * Ganymede
+ * %%
+ * Copyright (C) 2024 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ganymede.util.ObjectMappers;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zeromq.SocketType;
+import org.zeromq.ZMQ;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link Message} tests.  Frames are sent over an {@code inproc}
+ * {@link SocketType#PAIR PAIR} and received with
+ * {@link Message#receive(Connection,ZMQ.Socket,byte[])}.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+public class MessageTest {
+    private static final byte[] IDENTITY = "client".getBytes(ZMQ.CHARSET);
+    private static final byte[] DELIMITER = "<IDS|MSG>".getBytes(ZMQ.CHARSET);
+    private static final byte[] BUFFER = new byte[] { 0, 1, 2, 3 };
+
+    @TempDir
+    public Path directory;
+
+    private ZMQ.Context context = null;
+    private ZMQ.Socket in = null;
+    private ZMQ.Socket out = null;
+    private Connection connection = null;
+
+    @BeforeEach
+    public void before() throws Exception {
+        var node = new ObjectNode(JsonNodeFactory.instance);
+
+        node.put("transport", "tcp");
+        node.put("ip", "127.0.0.1");
+        node.put("signature_scheme", "hmac-sha256");
+        node.put("key", UUID.randomUUID().toString());
+
+        var file = new File(directory.toFile(), "kernel-" + UUID.randomUUID() + ".json");
+
+        Files.write(file.toPath(), ObjectMappers.JSON.writeValueAsBytes(node));
+
+        connection = Connection.parse(file);
+
+        var address = "inproc://" + getClass().getSimpleName() + "-" + UUID.randomUUID();
+
+        context = ZMQ.context(1);
+        in = context.socket(SocketType.PAIR);
+        in.bind(address);
+        out = context.socket(SocketType.PAIR);
+        out.connect(address);
+    }
+
+    @AfterEach
+    public void after() {
+        out.close();
+        in.close();
+        context.close();
+    }
+
+    private byte[][] request(String msg_type, ObjectNode content) throws Exception {
+        var header = new ObjectNode(JsonNodeFactory.instance);
+
+        header.put("msg_id", UUID.randomUUID().toString());
+        header.put("msg_type", msg_type);
+        header.put("session", UUID.randomUUID().toString());
+        header.put("username", "test");
+        header.put("version", "5.3");
+
+        return new byte[][] {
+            ObjectMappers.WIRE_WRITER.writeValueAsBytes(header),
+            "{}".getBytes(UTF_8),
+            "{\"cellId\":\"0\"}".getBytes(UTF_8),
+            ObjectMappers.WIRE_WRITER.writeValueAsBytes(content)
+        };
+    }
+
+    private Message roundTrip(String signature, byte[]... frames) {
+        out.send(IDENTITY, ZMQ.SNDMORE);
+        out.send(DELIMITER, ZMQ.SNDMORE);
+        out.send(signature.getBytes(ZMQ.CHARSET), ZMQ.SNDMORE);
+
+        for (var frame : frames) {
+            out.send(frame, ZMQ.SNDMORE);
+        }
+
+        out.send(BUFFER, 0);
+
+        return Message.receive(connection, in, in.recv(0));
+    }
+
+    private ObjectNode code(String code) {
+        var content = new ObjectNode(JsonNodeFactory.instance);
+
+        content.put("code", code);
+        content.put("silent", false);
+
+        return content;
+    }
+
+    @Test
+    public void receive() throws Exception {
+        var frames = request("execute_request", code("1 + 1"));
+        var message = roundTrip(connection.getDigester().digest(frames), frames);
+
+        assertEquals("execute_request", message.msg_type());
+        assertTrue(message.isRequest());
+        assertFalse(message.isReply());
+        assertEquals("execute", message.getMessageTypeAction());
+        assertEquals(1, message.envelope().size());
+        assertArrayEquals(IDENTITY, message.envelope().get(0));
+        assertEquals("1 + 1", message.content().at("/code").asText());
+        assertEquals("0", message.metadata().at("/cellId").asText());
+        assertTrue(message.parentHeader().isEmpty());
+        assertEquals(1, message.buffers().size());
+        assertArrayEquals(BUFFER, message.buffers().get(0));
+    }
+
+    @Test
+    public void invalidSignature() throws Exception {
+        var frames = request("execute_request", code("1 + 1"));
+        var digest = connection.getDigester().digest(frames);
+
+        frames[3] = ObjectMappers.WIRE_WRITER.writeValueAsBytes(code("2 + 2"));
+
+        assertThrows(SecurityException.class, () -> roundTrip(digest, frames));
+    }
+
+    @Test
+    public void serializeUnparsed() throws Exception {
+        var frames = request("execute_request", code("1 + 1"));
+        var message = roundTrip(connection.getDigester().digest(frames), frames);
+        /*
+         * Unparsed frames are sent as received.
+         */
+        var list = message.serialize(connection.getDigester());
+
+        assertEquals(8, list.size());
+        assertArrayEquals(IDENTITY, list.get(0));
+        assertArrayEquals(DELIMITER, list.get(1));
+        assertArrayEquals(frames[1], list.get(4));
+        assertArrayEquals(frames[2], list.get(5));
+        assertArrayEquals(frames[3], list.get(6));
+        assertArrayEquals(BUFFER, list.get(7));
+        assertTrue(connection.getDigester()
+                   .verify(new String(list.get(2), ZMQ.CHARSET),
+                           list.get(3), list.get(4), list.get(5), list.get(6)));
+    }
+
+    @Test
+    public void serializeParsed() throws Exception {
+        var frames = request("execute_request", code("1 + 1"));
+        var message = roundTrip(connection.getDigester().digest(frames), frames);
+
+        message.content().put("code", "2 + 2");
+
+        var list = message.serialize(connection.getDigester());
+        var copy = roundTrip(new String(list.get(2), ZMQ.CHARSET), list.subList(3, 7).toArray(new byte[][] { }));
+
+        assertEquals("2 + 2", copy.content().at("/code").asText());
+        assertEquals(message.msg_id(), copy.msg_id());
+    }
+
+    @Test
+    public void copy() throws Exception {
+        var frames = request("execute_request", code("1 + 1"));
+        var message = roundTrip(connection.getDigester().digest(frames), frames);
+        var copy = message.copy();
+
+        assertEquals(message.content(), copy.content());
+        assertEquals(message.metadata(), copy.metadata());
+        assertEquals(message.msg_id(), copy.msg_id());
+
+        copy.content().put("code", "2 + 2");
+
+        assertEquals("1 + 1", message.content().at("/code").asText());
+    }
+
+    @Test
+    public void reply() throws Exception {
+        var frames = request("kernel_info_request", new ObjectNode(JsonNodeFactory.instance));
+        var request = roundTrip(connection.getDigester().digest(frames), frames);
+        var reply = request.reply();
+
+        assertEquals("kernel_info_reply", reply.msg_type());
+        assertTrue(reply.isReply());
+        assertEquals(request.msg_id(), reply.parentHeader().at("/msg_id").asText());
+        assertEquals("ok", reply.content().at("/status").asText());
+        assertArrayEquals(IDENTITY, reply.envelope().get(0));
+        assertThrows(IllegalStateException.class, () -> reply.reply());
+    }
+
+    @Test
+    public void types() {
+        var message = Message.status(Message.status.busy, null);
+
+        assertEquals("status", message.getMessageTypeAction());
+        assertFalse(message.isRequest());
+        assertFalse(message.isReply());
+
+        for (var type : List.of("comm_info_request", "Custom_Request", "custom_request")) {
+            message.msg_type(type);
+
+            assertTrue(message.isRequest(), type);
+            assertEquals(type.toLowerCase().replaceAll("_request$", ""), message.getMessageTypeAction());
+        }
+    }
+}
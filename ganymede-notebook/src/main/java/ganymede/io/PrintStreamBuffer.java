@@ -20,32 +20,44 @@ package ganymede.io;
  */
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.Arrays;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
- * {@link PrintStream} buffer.
+ * {@link PrintStream} buffer.  May be configured with a limit (total bytes
+ * accepted between {@link #reset()}s; the remainder is discarded and
+ * counted) and a listener notified when the accumulated output reaches a
+ * threshold so it may be {@link #drain() drained} incrementally.
  *
  * @see ByteArrayOutputStream
  *
  * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
  */
 public class PrintStreamBuffer extends PrintStream {
-    private final ByteArrayOutputStream buffer;
+    private final Buffer buffer;
 
     /**
-     * Sole constructor.
+     * No-argument constructor.  The buffer is unlimited.
      */
-    public PrintStreamBuffer() { this(new ByteArrayOutputStream()); }
+    public PrintStreamBuffer() { this(Long.MAX_VALUE); }
 
-    private PrintStreamBuffer(ByteArrayOutputStream buffer) {
+    /**
+     * Constructor to specify a limit.
+     *
+     * @param   limit           The maximum number of bytes accepted
+     *                          between {@link #reset()}s.
+     */
+    public PrintStreamBuffer(long limit) { this(new Buffer(limit)); }
+
+    private PrintStreamBuffer(Buffer buffer) {
         super(buffer, true, UTF_8);
 
         this.buffer = buffer;
     }
 
     /**
-     * Discards all currently accumulated output.
+     * Discards all currently accumulated output and resets the limit.
      */
     public void reset() { buffer.reset(); }
 
@@ -56,6 +68,42 @@ public class PrintStreamBuffer extends PrintStream {
      */
     public byte[] toByteArray() { return buffer.toByteArray(); }
 
+    /**
+     * Returns and discards the buffer's contents up to the last complete
+     * UTF-8 character.  Does not reset the limit.
+     *
+     * @return  The drained contents.
+     */
+    public String drain() { return new String(buffer.drain(), UTF_8); }
+
+    /**
+     * Returns the number of bytes currently accumulated.
+     *
+     * @return  The number of bytes.
+     */
+    public int size() { return buffer.size(); }
+
+    /**
+     * Returns the number of bytes discarded because the limit was exceeded
+     * since the last {@link #reset()}.
+     *
+     * @return  The number of bytes discarded.
+     */
+    public long getTruncated() { return buffer.getTruncated(); }
+
+    /**
+     * Method to set (or clear) the threshold listener.
+     *
+     * @param   threshold       The number of accumulated bytes that
+     *                          triggers the listener.
+     * @param   listener        The {@link Runnable} to invoke (may be
+     *                          {@code null}).  Invoked on the writing
+     *                          {@link Thread}; should not block.
+     */
+    public void setListener(int threshold, Runnable listener) {
+        buffer.setListener(threshold, listener);
+    }
+
     /**
      * Returns the buffer's contents.
      *
@@ -66,4 +114,84 @@ public class PrintStreamBuffer extends PrintStream {
 
     @Override
     public void close() { }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        private final long limit;
+        private long total = 0;
+        private long truncated = 0;
+        private int threshold = Integer.MAX_VALUE;
+        private Runnable listener = null;
+
+        public Buffer(long limit) { this.limit = limit; }
+
+        public synchronized void setListener(int threshold, Runnable listener) {
+            this.threshold = threshold;
+            this.listener = listener;
+        }
+
+        public synchronized long getTruncated() { return truncated; }
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int off, int len) {
+            var room = Math.max(limit - total, 0);
+
+            if (len > room) {
+                truncated += len - room;
+                len = (int) room;
+            }
+
+            if (len > 0) {
+                super.write(bytes, off, len);
+                total += len;
+
+                if (listener != null && count >= threshold) {
+                    listener.run();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            total = 0;
+            truncated = 0;
+        }
+
+        public synchronized byte[] drain() {
+            var end = count;
+            var start = Math.max(end - 3, 0);
+            /*
+             * Hold back a trailing incomplete UTF-8 sequence.
+             */
+            for (int i = end - 1; i >= start; i -= 1) {
+                var b = buf[i] & 0xFF;
+
+                if ((b & 0xC0) == 0x80) {
+                    continue;
+                }
+
+                if (b >= 0xC0) {
+                    var length = (b >= 0xF0) ? 4 : (b >= 0xE0) ? 3 : 2;
+
+                    if (i + length > end) {
+                        end = i;
+                    }
+                }
+
+                break;
+            }
+
+            var bytes = Arrays.copyOf(buf, end);
+
+            System.arraycopy(buf, end, buf, 0, count - end);
+            count -= end;
+
+            return bytes;
+        }
+    }
 }
@@ -0,0 +1,131 @@
+package ganymede.notebook;
+/*-
+ * ##########################################################################
+ * Ganymede
+ * %%
+ * Copyright (C) 2024 Allen D. Ball
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ##########################################################################
+ */
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import javax.script.Bindings;
+import javax.script.SimpleBindings;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link Bindings} implementation whose values may be bound to a
+ * {@link Supplier} and resolved on access.  Bound to
+ * {@link jdk.jshell.JShell} variables by
+ * {@link NotebookContext#preExecute(jdk.jshell.JShell)} so a binding
+ * always reflects the variable's current value.
+ *
+ * @author {@link.uri mailto:ball@hcf.dev Allen D. Ball}
+ */
+public class LazyBindings extends SimpleBindings {
+    private final ConcurrentSkipListMap<String,Object> map;
+
+    /**
+     * Sole public constructor.
+     */
+    public LazyBindings() { this(new ConcurrentSkipListMap<>()); }
+
+    private LazyBindings(ConcurrentSkipListMap<String,Object> map) {
+        super(new ResolvingMap(map));
+
+        this.map = map;
+    }
+
+    /**
+     * Method to bind a name to a {@link Supplier}.
+     *
+     * @param   name            The name.
+     * @param   supplier        The {@link Supplier} of the value.
+     */
+    public void bind(String name, Supplier<?> supplier) {
+        map.put(name, new Lazy(supplier));
+    }
+
+    /**
+     * Method to remove a binding.
+     *
+     * @param   name            The name.
+     */
+    public void unbind(String name) { map.remove(name); }
+
+    private static Object resolve(Object value) {
+        return (value instanceof Lazy) ? ((Lazy) value).supplier.get() : value;
+    }
+
+    @RequiredArgsConstructor
+    private static class Lazy {
+        private final Supplier<?> supplier;
+    }
+
+    @RequiredArgsConstructor
+    private static class ResolvingMap extends AbstractMap<String,Object> {
+        private final ConcurrentSkipListMap<String,Object> map;
+
+        @Override
+        public int size() { return map.size(); }
+
+        @Override
+        public boolean containsKey(Object key) { return map.containsKey(key); }
+
+        @Override
+        public Object get(Object key) { return resolve(map.get(key)); }
+
+        @Override
+        public Object put(String key, Object value) { return resolve(map.put(key, value)); }
+
+        @Override
+        public Object remove(Object key) { return resolve(map.remove(key)); }
+
+        @Override
+        public void clear() { map.clear(); }
+
+        @Override
+        public Set<Map.Entry<String,Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String,Object>>() {
+                @Override
+                public int size() { return map.size(); }
+
+                @Override
+                public Iterator<Map.Entry<String,Object>> iterator() {
+                    var iterator = map.entrySet().iterator();
+
+                    return new Iterator<Map.Entry<String,Object>>() {
+                        @Override
+                        public boolean hasNext() { return iterator.hasNext(); }
+
+                        @Override
+                        public Map.Entry<String,Object> next() {
+                            var entry = iterator.next();
+
+                            return new SimpleImmutableEntry<>(entry.getKey(), resolve(entry.getValue()));
+                        }
+
+                        @Override
+                        public void remove() { iterator.remove(); }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -34,8 +34,19 @@ import org.springframework.boot.builder.SpringApplicationBuilder;
 public class Notebook {
 
     /**
-     * Static factory method to create an {@link NotebookContext}.  Also
-     * initializes the Spring environment.
+     * The name ({@value #SPRING_PROPERTY}) of the {@link System} property
+     * which, if {@code true}, causes {@link #newNotebookContext()} to also
+     * initialize the Spring environment.
+     */
+    public static final String SPRING_PROPERTY = "notebook.spring";
+
+    /**
+     * Static factory method to create an {@link NotebookContext}.  The
+     * {@link NotebookContext} wires its own
+     * {@link ganymede.kernel.client.KernelRestClient}, {@link MagicMap},
+     * and {@link RendererMap}; the Spring environment is initialized only
+     * if the {@value #SPRING_PROPERTY} {@link System} property is
+     * {@code true}.
      *
      * @see SpringApplicationBuilder
      *
@@ -44,15 +55,17 @@ public class Notebook {
     public static NotebookContext newNotebookContext() {
         var context = new NotebookContext();
 
-        try {
-            var type = Notebook.class;
-            var profile = type.getSimpleName().toLowerCase();
+        if (Boolean.getBoolean(SPRING_PROPERTY)) {
+            try {
+                var type = Notebook.class;
+                var profile = type.getSimpleName().toLowerCase();
 
-            new SpringApplicationBuilder(type)
-                .profiles(profile)
-                .run();
-        } catch (Exception exception) {
-            exception.printStackTrace(System.err);
+                new SpringApplicationBuilder(type)
+                    .profiles(profile)
+                    .run();
+            } catch (Exception exception) {
+                exception.printStackTrace(System.err);
+            }
         }
 
         return context;
@@ -24,6 +24,7 @@ import ganymede.jupyter.notebook.model.Kernel;
 import ganymede.jupyter.notebook.model.Session;
 import ganymede.kernel.client.KernelRestClient;
 import ganymede.util.ObjectMappers;
+import ganymede.util.ServiceProviderMap;
 import java.io.IOException;
 import java.io.StreamTokenizer;
 import java.io.StringReader;
@@ -31,15 +32,19 @@ import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.script.ScriptContext;
 import javax.script.SimpleBindings;
@@ -57,6 +62,8 @@ import static java.lang.reflect.Modifier.isPublic;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toMap;
+import static jdk.jshell.Snippet.Status.REJECTED;
+import static jdk.jshell.Snippet.Status.VALID;
 import static jdk.jshell.Snippet.SubKind.TEMP_VAR_EXPRESSION_SUBKIND;
 
 /**
@@ -74,6 +81,9 @@ public class NotebookContext {
      */
     public static final String NAME = "$$";
 
+    private static final Map<JShell,Map<String,String>> BOUND =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
     private final ClassLoader loader = getClass().getClassLoader();
     private final KernelRestClient krc = new KernelRestClient();
     private final NotebookServicesClient nsc;
@@ -107,7 +117,7 @@ public class NotebookContext {
         new SimpleScriptContext() {
             {
                 setBindings(new SimpleBindings(new ConcurrentSkipListMap<>()), GLOBAL_SCOPE);
-                setBindings(new SimpleBindings(new ConcurrentSkipListMap<>()), ENGINE_SCOPE);
+                setBindings(new LazyBindings(), ENGINE_SCOPE);
             }
         };
 
@@ -147,7 +157,20 @@ public class NotebookContext {
      *
      * @see #kernel
      */
-    public void refresh() {
+    public void refresh() { refresh(ServiceProviderMap.getGeneration()); }
+
+    /**
+     * Method to update notebook context and the classpath generation.  See
+     * {@link ServiceProviderMap#setGeneration(long)}.
+     *
+     * @param   generation      The {@link ganymede.shell.Shell} classpath
+     *                          generation.
+     *
+     * @see #kernel
+     */
+    public void refresh(long generation) {
+        ServiceProviderMap.setGeneration(generation);
+
         try {
             kernel = nsc.getKernel(kernelId);
 
@@ -201,6 +224,29 @@ public class NotebookContext {
         }
     }
 
+    /**
+     * Method to bind a {@link JShell} variable in the
+     * {@link ScriptContext#ENGINE_SCOPE} {@link LazyBindings}.  See
+     * {@link #preExecute(JShell)}.
+     *
+     * @param   name            The variable name.
+     * @param   supplier        The {@link Supplier} of the variable's
+     *                          value.
+     */
+    public void bind(String name, Supplier<?> supplier) {
+        ((LazyBindings) context.getBindings(ScriptContext.ENGINE_SCOPE)).bind(name, supplier);
+    }
+
+    /**
+     * Method to remove a {@link JShell} variable binding.  See
+     * {@link #preExecute(JShell)}.
+     *
+     * @param   name            The variable name.
+     */
+    public void unbind(String name) {
+        ((LazyBindings) context.getBindings(ScriptContext.ENGINE_SCOPE)).unbind(name);
+    }
+
     /**
      * {@link NotebookFunction} to display from a Notebook cell.
      *
@@ -364,19 +410,67 @@ public class NotebookContext {
 
     /**
      * Static method used by the {@link ganymede.shell.Shell} REPL to update
-     * the {@link NotebookContext} instance before execution.
+     * the {@link NotebookContext} instance before execution.  Variables
+     * are bound lazily (see {@link #bind(String,Supplier)}) so only
+     * variables declared or dropped since the previous call are
+     * (re-)bound and all updates are made in a single generated snippet.
      *
      * @param   jshell          The {@link JShell}.
      */
     public static void preExecute(JShell jshell) {
-        evaluate(jshell, "%1$s.refresh()", NAME);
+        preExecute(jshell, -1);
+    }
 
-        var variables = variables(jshell);
+    /**
+     * Static method used by the {@link ganymede.shell.Shell} REPL to update
+     * the {@link NotebookContext} instance before execution.  See
+     * {@link #preExecute(JShell)}.  {@link Magic} and {@link Renderer}
+     * services are rescanned only if the classpath generation has changed.
+     *
+     * @param   jshell          The {@link JShell}.
+     * @param   generation      The classpath generation (or {@code -1}
+     *                          if unknown).
+     */
+    public static void preExecute(JShell jshell, long generation) {
+        if (generation < 0) {
+            evaluate(jshell, "%1$s.refresh()", NAME);
+        } else {
+            evaluate(jshell, "%1$s.refresh(%2$dL)", NAME, generation);
+        }
 
-        for (var entry : variables.entrySet()) {
-            evaluate(jshell,
-                     "%1$s.context.getBindings(%2$d).put(\"%3$s\", %3$s)",
-                     NAME, ScriptContext.ENGINE_SCOPE, entry.getKey());
+        var bound = BOUND.computeIfAbsent(jshell, k -> new TreeMap<>());
+        var current =
+            jshell.variables()
+            .filter(t -> (! t.subKind().equals(TEMP_VAR_EXPRESSION_SUBKIND)))
+            .filter(t -> jshell.status(t).equals(VALID))
+            .collect(toMap(k -> k.name(), v -> v.id()));
+        var statements = new LinkedHashMap<String,String>();
+
+        for (var name : bound.keySet()) {
+            if (! current.containsKey(name)) {
+                statements.put(name, String.format("%1$s.unbind(\"%2$s\");", NAME, name));
+            }
+        }
+
+        for (var entry : current.entrySet()) {
+            if (! Objects.equals(entry.getValue(), bound.get(entry.getKey()))) {
+                statements.put(entry.getKey(),
+                               String.format("%1$s.bind(\"%2$s\", () -> %2$s);", NAME, entry.getKey()));
+            }
+        }
+
+        if (! statements.isEmpty()) {
+            if (! execute(jshell, String.join(" ", statements.values()))) {
+                statements.values().removeIf(t -> (! execute(jshell, t)));
+            }
+
+            for (var name : statements.keySet()) {
+                if (current.containsKey(name)) {
+                    bound.put(name, current.get(name));
+                } else {
+                    bound.remove(name);
+                }
+            }
         }
     }
 
@@ -389,6 +483,12 @@ public class NotebookContext {
     public static void postExecute(JShell jshell) {
     }
 
+    private static boolean execute(JShell jshell, String statements) {
+        var events = jshell.eval("{ " + statements + " }");
+
+        return events.stream().allMatch(t -> (! t.status().equals(REJECTED)) && t.exception() == null);
+    }
+
     private static String evaluate(JShell jshell, String expression, Object... argv) {
         var analyzer = jshell.sourceCodeAnalysis();
         var info = analyzer.analyzeCompletion(String.format(expression, argv));
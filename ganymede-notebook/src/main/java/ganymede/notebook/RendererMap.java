@@ -25,6 +25,7 @@ import java.util.Comparator;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
@@ -41,6 +42,8 @@ public class RendererMap extends TreeMap<Class<?>,Renderer> {
 
     /** @serial */
     private final ServiceProviderMap<Renderer> map;
+    private final transient ConcurrentHashMap<Class<?>,Optional<Renderer>> cache =
+        new ConcurrentHashMap<>();
 
     /**
      * Sole constructor.
@@ -68,13 +71,20 @@ public class RendererMap extends TreeMap<Class<?>,Renderer> {
 
     /**
      * Reload the underlying {@link ServiceProviderMap} and add the
-     * corresponding entries.
+     * corresponding entries.  The resolution cache is invalidated only if
+     * new entries were added.
      *
      * @return  {@link.this}
      */
     public RendererMap reload() {
+        var size = size();
+
         map.reload();
 
+        if (size != size()) {
+            cache.clear();
+        }
+
         return this;
     }
 
@@ -119,6 +129,17 @@ public class RendererMap extends TreeMap<Class<?>,Renderer> {
     }
 
     private Optional<Renderer> find(Class<?> type) {
+        var value = cache.get(type);
+
+        if (value == null) {
+            value = resolve(type);
+            cache.putIfAbsent(type, value);
+        }
+
+        return value;
+    }
+
+    private Optional<Renderer> resolve(Class<?> type) {
         var value =
             entrySet().stream()
             .filter(t -> t.getKey().isAssignableFrom(type))
@@ -21,6 +21,8 @@ package ganymede.util;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
@@ -42,6 +44,20 @@ public interface ObjectMappers {
         .enable(SerializationFeature.INDENT_OUTPUT)
         .build();
 
+    /**
+     * Compact (non-indented) JSON {@link ObjectWriter} for wire protocols.
+     * Serialize with {@link ObjectWriter#writeValueAsBytes(Object)} to
+     * write UTF-8 directly (through Jackson's per-thread recycled
+     * buffers) without an intermediate {@link String}.
+     */
+    public static final ObjectWriter WIRE_WRITER = JSON.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * JSON {@link ObjectReader} for wire protocols.  See
+     * {@link #WIRE_WRITER}.
+     */
+    public static final ObjectReader WIRE_READER = JSON.reader();
+
     /**
      * Common static YAML {@link ObjectMapper} instance.
      */
@@ -23,6 +23,7 @@ import java.util.Objects;
 import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
@@ -37,9 +38,12 @@ public class ServiceProviderMap<T> extends TreeMap<Class<? extends T>,T> {
 
     private static final Comparator<Class<?>> COMPARATOR = Comparator.comparing(Class::getName);
 
+    private static final AtomicLong GENERATION = new AtomicLong(0);
+
     /** @serial */ private final Class<T> service;
     /** @serial */ private final ServiceLoader<T> loader;
     /** @serial */ private Function<ServiceLoader.Provider<T>,T> compute;
+    private transient long generation = -1;
 
     /**
      * Sole constructor.
@@ -68,24 +72,48 @@ public class ServiceProviderMap<T> extends TreeMap<Class<? extends T>,T> {
      */
     public ClassLoader getClassLoader() { return service.getClassLoader(); }
 
+    /**
+     * Method to get the current classpath generation.
+     *
+     * @return  The classpath generation.
+     */
+    public static long getGeneration() { return GENERATION.get(); }
+
+    /**
+     * Method to set the current classpath generation.  Instances rescan
+     * their {@link ServiceLoader} on the next {@link #reload()} only if
+     * the generation has changed since their last scan.
+     *
+     * @param   generation      The classpath generation.
+     */
+    public static void setGeneration(long generation) { GENERATION.set(generation); }
+
     /**
      * Reload {@link ServiceLoader} and {@link #put(Object,Object)} newly
-     * discovered entries.
+     * discovered entries.  A no-op if the classpath
+     * {@link #getGeneration() generation} has not changed since the last
+     * call.
      *
      * @return  {@link.this}
      */
-    public ServiceProviderMap<T> reload() {
-        loader.reload();
+    public synchronized ServiceProviderMap<T> reload() {
+        var current = GENERATION.get();
 
-        var iterator = loader.stream().iterator();
+        if (generation != current) {
+            loader.reload();
 
-        while (iterator.hasNext()) {
-            var provider = iterator.next();
+            var iterator = loader.stream().iterator();
 
-            try {
-                computeIfAbsent(provider.type(), k -> compute.apply(provider));
-            } catch (ServiceConfigurationError error) {
+            while (iterator.hasNext()) {
+                var provider = iterator.next();
+
+                try {
+                    computeIfAbsent(provider.type(), k -> compute.apply(provider));
+                } catch (ServiceConfigurationError error) {
+                }
             }
+
+            generation = current;
         }
 
         return this;
@@ -24,8 +24,14 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import ganymede.util.ObjectMappers;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.function.Function;
@@ -62,6 +68,9 @@ import static org.springframework.util.FileSystemUtils.deleteRecursively;
 public class Install implements ApplicationRunner {
     private static final String SHEBANG = "#!";
 
+    private static final String SHARED_ARCHIVE_FILE = "-XX:SharedArchiveFile=";
+    private static final int CDS_AUTO_CREATE_FEATURE = 19;
+
     @Option(description = { "Install Ganymede kernel" }, names = { "-i" })
     @Value("${install:#{null}}")
     private Boolean install = null;
@@ -90,6 +99,9 @@ public class Install implements ApplicationRunner {
     @Value("${copy-jar:true}")
     private boolean copy_jar = true;
 
+    @Value("${cds:false}")
+    private boolean cds = false;
+
     @Override
     public void run(ApplicationArguments arguments) throws Exception {
         new CommandLine(this)
@@ -201,19 +213,36 @@ public class Install implements ApplicationRunner {
             var kernel = new ObjectNode(JsonNodeFactory.instance);
             var argv = kernel.withArray("argv");
             var jar = jarPath.toAbsolutePath().toString();
+            var target = Paths.get(data_dir, "kernels").toString();
+
+            if (sys_prefix) {
+                target = Paths.get(sys_prefix_dir, "share/jupyter/kernels").toString();
+            }
 
             if (copy_jar) {
                 var name = "kernel.jar";
 
                 copy(jarPath.toFile(), kernelspec.resolve(name).toFile());
 
-                var target = Paths.get(data_dir, "kernels").toString();
+                jar = Paths.get(target, id, name).toString();
+            }
+            /*
+             * Class Data Sharing: The JVM creates (on first run) and
+             * validates the archive itself.  The archive name includes the
+             * jar checksum so a reinstalled or updated jar never uses a
+             * stale archive.
+             */
+            var xxoptions = new ArrayList<String>();
 
-                if (sys_prefix) {
-                    target = Paths.get(sys_prefix_dir, "share/jupyter/kernels").toString();
-                }
+            if (cds) {
+                if (feature(java) >= CDS_AUTO_CREATE_FEATURE) {
+                    var archive = Paths.get(target, id, "kernel-" + checksum(jarPath) + ".jsa");
 
-                jar = Paths.get(target, id, name).toString();
+                    xxoptions.add("-XX:+AutoCreateSharedArchive");
+                    xxoptions.add(SHARED_ARCHIVE_FILE + archive);
+                } else {
+                    log.warn("{}: Class Data Sharing archive creation requires Java {}+", java, CDS_AUTO_CREATE_FEATURE);
+                }
             }
 
             Stream.of(Stream.of(java,
@@ -221,6 +250,7 @@ public class Install implements ApplicationRunner {
                                 "--illegal-access=permit",
                                 "-Djava.awt.headless=true",
                                 "-Djdk.disableLastUsageTracking=true"),
+                      xxoptions.stream(),
                       sysProperties.entrySet().stream().map(t -> "-D" + t),
                       Stream.of("-jar", jar, "-f", "{connection_file}"))
                 .flatMap(Function.identity())
@@ -274,6 +304,36 @@ public class Install implements ApplicationRunner {
         }
     }
 
+    private String checksum(Path path) throws Exception {
+        var digest = MessageDigest.getInstance("SHA-256");
+
+        try (var in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+
+        return String.format("%064x", new BigInteger(1, digest.digest())).substring(0, 16);
+    }
+
+    /*
+     * The feature release of the java binary written to the kernelspec
+     * (java --version: "<name> <version> ..."); -1 if undetermined.
+     */
+    private int feature(String java) {
+        var feature = -1;
+
+        try {
+            var tokens = getOutputAsString(java, "--version").split("\\s+", 3);
+
+            if (tokens.length > 1) {
+                feature = Runtime.Version.parse(tokens[1]).feature();
+            }
+        } catch (Exception exception) {
+            log.debug("{}", exception);
+        }
+
+        return feature;
+    }
+
     private String which(String command) throws Exception {
         return getOutputAsString("which", command);
     }